@@ -5,12 +5,15 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.bitcoinj.crypto.*;
+import org.p2p.solanaj.utils.Ed25519Signer;
 import org.p2p.solanaj.utils.TweetNaclFast;
 import org.p2p.solanaj.utils.bip32.wallet.SolanaBip44;
 import org.p2p.solanaj.utils.bip32.wallet.DerivableType;
 
 public class Account {
     private TweetNaclFast.Signature.KeyPair keyPair;
+    private volatile Ed25519Signer signer;
+    private volatile PublicKey publicKey;
 
     public Account() {
         this.keyPair = TweetNaclFast.Signature.keyPair();
@@ -85,13 +88,32 @@ public class Account {
     }
 
     public PublicKey getPublicKey() {
-        return new PublicKey(keyPair.getPublicKey());
+        PublicKey result = publicKey;
+        if (result == null) {
+            // kept so its base58 form is only encoded once
+            result = new PublicKey(keyPair.getPublicKey());
+            publicKey = result;
+        }
+        return result;
     }
 
     public byte[] getSecretKey() {
         return keyPair.getSecretKey();
     }
 
+    /**
+     * @return signer for this account, with the secret key expanded once and reused for every signature
+     */
+    public Ed25519Signer getSigner() {
+        Ed25519Signer result = signer;
+        if (result == null) {
+            // racing threads build equivalent signers, either one may be kept
+            result = new Ed25519Signer(keyPair.getSecretKey());
+            signer = result;
+        }
+        return result;
+    }
+
     /**
      * Convert's a Sollet-exported JSON string into a byte array usable for {@link Account} instantiation
      * @param characters Sollet-exported JSON string
@@ -3,24 +3,32 @@ package org.p2p.solanaj.core;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashMap;
-
+import java.util.LinkedHashMap;
+
+/**
+ * Unique account metas of a message, keyed on the raw 32-byte public key.
+ *
+ * {@link #getList()} orders them signers first, then writable before read-only; within each of those classes
+ * accounts keep the order they were first added in, so the compiled message is deterministic.
+ */
 public class AccountKeysList {
-    private HashMap<String, AccountMeta> accounts;
+    private LinkedHashMap<PublicKey, AccountMeta> accounts;
 
     public AccountKeysList() {
-        accounts = new HashMap<String, AccountMeta>();
+        accounts = new LinkedHashMap<PublicKey, AccountMeta>();
     }
 
     public void add(AccountMeta accountMeta) {
-        String key = accountMeta.getPublicKey().toString();
+        PublicKey key = accountMeta.getPublicKey();
+        AccountMeta existing = accounts.get(key);
 
-        if (accounts.containsKey(key)) {
-            if (!accounts.get(key).isWritable() && accountMeta.isWritable()) {
-                accounts.put(key, accountMeta);
-            }
-        } else {
+        if (existing == null) {
             accounts.put(key, accountMeta);
+        } else if ((!existing.isSigner() && accountMeta.isSigner())
+                || (!existing.isWritable() && accountMeta.isWritable())) {
+            // an account used in several instructions takes the strongest role; it keeps its first position
+            accounts.put(key, new AccountMeta(key, existing.isSigner() || accountMeta.isSigner(),
+                    existing.isWritable() || accountMeta.isWritable()));
         }
     }
 
@@ -32,6 +40,7 @@ public class AccountKeysList {
 
     public ArrayList<AccountMeta> getList() {
         ArrayList<AccountMeta> accountKeysList = new ArrayList<AccountMeta>(accounts.values());
+        // stable sort, insertion order is kept within each class
         accountKeysList.sort(metaComparator);
 
         return accountKeysList;
@@ -47,12 +56,7 @@ public class AccountKeysList {
                 return cmpSigner;
             }
 
-            int cmpkWritable = am1.isWritable() == am2.isWritable() ? 0 : am1.isWritable() ? -1 : 1;
-            if (cmpkWritable != 0) {
-                return cmpkWritable;
-            }
-
-            return Integer.compare(cmpSigner, cmpkWritable);
+            return am1.isWritable() == am2.isWritable() ? 0 : am1.isWritable() ? -1 : 1;
         }
     };
 
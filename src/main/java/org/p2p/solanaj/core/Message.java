@@ -2,45 +2,22 @@ package org.p2p.solanaj.core;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-import org.bitcoinj.core.Base58;
-
+import org.p2p.solanaj.utils.Base58;
 import org.p2p.solanaj.utils.ShortvecEncoding;
 
 public class Message {
-    private class MessageHeader {
-        static final int HEADER_LENGTH = 3;
-
-        byte numRequiredSignatures = 0;
-        byte numReadonlySignedAccounts = 0;
-        byte numReadonlyUnsignedAccounts = 0;
-
-        byte[] toByteArray() {
-            return new byte[] { numRequiredSignatures, numReadonlySignedAccounts, numReadonlyUnsignedAccounts };
-        }
-    }
-
-    private class CompiledInstruction {
-        byte programIdIndex;
-        byte[] keyIndicesCount;
-        byte[] keyIndices;
-        byte[] dataLength;
-        byte[] data;
-
-        int getLength() {
-            // 1 = programIdIndex length
-            return 1 + keyIndicesCount.length + keyIndices.length + dataLength.length + data.length;
-        }
-    }
-
+    private static final int HEADER_LENGTH = 3;
     private static final int RECENT_BLOCK_HASH_LENGTH = 32;
 
-    private MessageHeader messageHeader;
     private String recentBlockhash;
+    private byte[] recentBlockhashBytes;
     private AccountKeysList accountKeys;
     private List<TransactionInstruction> instructions;
-    private Account feePayer;
+    private PublicKey feePayer;
 
     public Message() {
         this.accountKeys = new AccountKeysList();
@@ -57,6 +34,8 @@ public class Message {
 
     public void setRecentBlockHash(String recentBlockhash) {
         this.recentBlockhash = recentBlockhash;
+        // decoded once here rather than on every serialize
+        this.recentBlockhashBytes = recentBlockhash == null ? null : Base58.decode(recentBlockhash);
     }
 
     public byte[] serialize() {
@@ -65,90 +44,93 @@ public class Message {
             throw new IllegalArgumentException("recentBlockhash required");
         }
 
+        if (recentBlockhashBytes.length != RECENT_BLOCK_HASH_LENGTH) {
+            throw new IllegalArgumentException("Invalid recentBlockhash");
+        }
+
         if (instructions.size() == 0) {
             throw new IllegalArgumentException("No instructions provided");
         }
 
-        messageHeader = new MessageHeader();
-
         List<AccountMeta> keysList = getAccountKeys();
         int accountKeysSize = keysList.size();
 
-        byte[] accountAddressesLength = ShortvecEncoding.encodeLength(accountKeysSize);
-
-        int compiledInstructionsLength = 0;
-        List<CompiledInstruction> compiledInstructions = new ArrayList<CompiledInstruction>();
+        byte numRequiredSignatures = 0;
+        byte numReadonlySignedAccounts = 0;
+        byte numReadonlyUnsignedAccounts = 0;
 
-        for (TransactionInstruction instruction : instructions) {
-            int keysSize = instruction.getKeys().size();
+        Map<PublicKey, Integer> keyIndices = new HashMap<>(accountKeysSize * 2);
+        for (int i = 0; i < accountKeysSize; i++) {
+            AccountMeta accountMeta = keysList.get(i);
+            keyIndices.put(accountMeta.getPublicKey(), i);
 
-            byte[] keyIndices = new byte[keysSize];
-            for (int i = 0; i < keysSize; i++) {
-                keyIndices[i] = (byte) findAccountIndex(keysList, instruction.getKeys().get(i).getPublicKey());
+            if (accountMeta.isSigner()) {
+                numRequiredSignatures += 1;
+                if (!accountMeta.isWritable()) {
+                    numReadonlySignedAccounts += 1;
+                }
+            } else {
+                if (!accountMeta.isWritable()) {
+                    numReadonlyUnsignedAccounts += 1;
+                }
             }
+        }
 
-            CompiledInstruction compiledInstruction = new CompiledInstruction();
-            compiledInstruction.programIdIndex = (byte) findAccountIndex(keysList, instruction.getProgramId());
-            compiledInstruction.keyIndicesCount = ShortvecEncoding.encodeLength(keysSize);
-            compiledInstruction.keyIndices = keyIndices;
-            compiledInstruction.dataLength = ShortvecEncoding.encodeLength(instruction.getData().length);
-            compiledInstruction.data = instruction.getData();
-
-            compiledInstructions.add(compiledInstruction);
+        // size everything up front so the message is written into a single exact-size buffer
+        int bufferSize = HEADER_LENGTH + ShortvecEncoding.encodedLength(accountKeysSize)
+                + accountKeysSize * PublicKey.PUBLIC_KEY_LENGTH + RECENT_BLOCK_HASH_LENGTH
+                + ShortvecEncoding.encodedLength(instructions.size());
+        for (TransactionInstruction instruction : instructions) {
+            int keysSize = instruction.getKeys().size();
+            int dataLength = instruction.getData().length;
 
-            compiledInstructionsLength += compiledInstruction.getLength();
+            // 1 = programIdIndex length
+            bufferSize += 1 + ShortvecEncoding.encodedLength(keysSize) + keysSize
+                    + ShortvecEncoding.encodedLength(dataLength) + dataLength;
         }
 
-        byte[] instructionsLength = ShortvecEncoding.encodeLength(compiledInstructions.size());
-
-        int bufferSize = MessageHeader.HEADER_LENGTH + RECENT_BLOCK_HASH_LENGTH + accountAddressesLength.length
-                + (accountKeysSize * PublicKey.PUBLIC_KEY_LENGTH) + instructionsLength.length
-                + compiledInstructionsLength;
+        byte[] message = new byte[bufferSize];
+        ByteBuffer out = ByteBuffer.wrap(message);
 
-        ByteBuffer out = ByteBuffer.allocate(bufferSize);
+        out.put(numRequiredSignatures);
+        out.put(numReadonlySignedAccounts);
+        out.put(numReadonlyUnsignedAccounts);
 
-        ByteBuffer accountKeysBuff = ByteBuffer.allocate(accountKeysSize * PublicKey.PUBLIC_KEY_LENGTH);
+        ShortvecEncoding.encodeLength(out, accountKeysSize);
         for (AccountMeta accountMeta : keysList) {
-            accountKeysBuff.put(accountMeta.getPublicKey().toByteArray());
-
-            if (accountMeta.isSigner()) {
-                messageHeader.numRequiredSignatures += 1;
-                if (!accountMeta.isWritable()) {
-                    messageHeader.numReadonlySignedAccounts += 1;
-                }
-            } else {
-                if (!accountMeta.isWritable()) {
-                    messageHeader.numReadonlyUnsignedAccounts += 1;
-                }
-            }
+            out.put(accountMeta.getPublicKey().bytes());
         }
 
-        out.put(messageHeader.toByteArray());
+        out.put(recentBlockhashBytes);
 
-        out.put(accountAddressesLength);
-        out.put(accountKeysBuff.array());
+        ShortvecEncoding.encodeLength(out, instructions.size());
+        for (TransactionInstruction instruction : instructions) {
+            out.put((byte) findAccountIndex(keyIndices, instruction.getProgramId()));
 
-        out.put(Base58.decode(recentBlockhash));
+            List<AccountMeta> keys = instruction.getKeys();
+            ShortvecEncoding.encodeLength(out, keys.size());
+            for (AccountMeta key : keys) {
+                out.put((byte) findAccountIndex(keyIndices, key.getPublicKey()));
+            }
 
-        out.put(instructionsLength);
-        for (CompiledInstruction compiledInstruction : compiledInstructions) {
-            out.put(compiledInstruction.programIdIndex);
-            out.put(compiledInstruction.keyIndicesCount);
-            out.put(compiledInstruction.keyIndices);
-            out.put(compiledInstruction.dataLength);
-            out.put(compiledInstruction.data);
+            ShortvecEncoding.encodeLength(out, instruction.getData().length);
+            out.put(instruction.getData());
         }
 
-        return out.array();
+        return message;
     }
 
     protected void setFeePayer(Account feePayer) {
+        setFeePayer(feePayer.getPublicKey());
+    }
+
+    protected void setFeePayer(PublicKey feePayer) {
         this.feePayer = feePayer;
     }
 
     private List<AccountMeta> getAccountKeys() {
         List<AccountMeta> keysList = accountKeys.getList();
-        int feePayerIndex = findAccountIndex(keysList, feePayer.getPublicKey());
+        int feePayerIndex = findAccountIndex(keysList, feePayer);
 
         List<AccountMeta> newList = new ArrayList<AccountMeta>();
         AccountMeta feePayerMeta = keysList.get(feePayerIndex);
@@ -159,6 +141,15 @@ public class Message {
         return newList;
     }
 
+    private int findAccountIndex(Map<PublicKey, Integer> keyIndices, PublicKey key) {
+        Integer index = keyIndices.get(key);
+        if (index == null) {
+            throw new RuntimeException("unable to find account index");
+        }
+
+        return index;
+    }
+
     private int findAccountIndex(List<AccountMeta> accountMetaList, PublicKey key) {
         for (int i = 0; i < accountMetaList.size(); i++) {
             if (accountMetaList.get(i).getPublicKey().equals(key)) {
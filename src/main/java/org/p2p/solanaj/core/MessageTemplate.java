@@ -0,0 +1,165 @@
+package org.p2p.solanaj.core;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.p2p.solanaj.utils.Base58;
+import org.p2p.solanaj.utils.ShortvecEncoding;
+
+/**
+ * A compiled message that can be re-sent with a new blockhash or new instruction data without rebuilding it.
+ *
+ * The header, account table and compiled instructions are laid out once; patching the blockhash or an
+ * instruction's data writes straight into the serialized bytes. Data can be changed but not resized, since that
+ * would shift the rest of the message. A template is not thread-safe; give each thread its own {@link #copy()}.
+ */
+public class MessageTemplate {
+
+    private static final int HEADER_LENGTH = 3;
+    private static final int RECENT_BLOCK_HASH_LENGTH = 32;
+
+    private final byte[] message;
+    private final int accountKeysOffset;
+    private final int blockhashOffset;
+    private final int[] dataOffsets;
+    private final int[] dataLengths;
+
+    /**
+     * @param transaction transaction with its instructions and a blockhash set; the blockhash can be replaced later
+     * @param feePayer    account paying the fee, compiled in as the first signer
+     */
+    public MessageTemplate(Transaction transaction, PublicKey feePayer) {
+        this(transaction.compileMessage(feePayer));
+    }
+
+    /**
+     * @param serializedMessage a serialized message, e.g. from {@link Transaction#compileMessage(PublicKey)}
+     */
+    public MessageTemplate(byte[] serializedMessage) {
+        this.message = serializedMessage.clone();
+
+        ByteBuffer in = ByteBuffer.wrap(message);
+        in.position(HEADER_LENGTH);
+        int accountKeysSize = ShortvecEncoding.decodeLength(in);
+        this.accountKeysOffset = in.position();
+        this.blockhashOffset = accountKeysOffset + accountKeysSize * PublicKey.PUBLIC_KEY_LENGTH;
+        in.position(blockhashOffset + RECENT_BLOCK_HASH_LENGTH);
+
+        int instructionsSize = ShortvecEncoding.decodeLength(in);
+        this.dataOffsets = new int[instructionsSize];
+        this.dataLengths = new int[instructionsSize];
+        for (int i = 0; i < instructionsSize; i++) {
+            // programIdIndex
+            in.get();
+            int keysSize = ShortvecEncoding.decodeLength(in);
+            in.position(in.position() + keysSize);
+            dataLengths[i] = ShortvecEncoding.decodeLength(in);
+            dataOffsets[i] = in.position();
+            in.position(dataOffsets[i] + dataLengths[i]);
+        }
+    }
+
+    private MessageTemplate(MessageTemplate template) {
+        this.message = template.message.clone();
+        this.accountKeysOffset = template.accountKeysOffset;
+        this.blockhashOffset = template.blockhashOffset;
+        this.dataOffsets = template.dataOffsets;
+        this.dataLengths = template.dataLengths;
+    }
+
+    public MessageTemplate copy() {
+        return new MessageTemplate(this);
+    }
+
+    public int getNumRequiredSignatures() {
+        return message[0];
+    }
+
+    public int getInstructionCount() {
+        return dataOffsets.length;
+    }
+
+    public int getInstructionDataLength(int instructionIndex) {
+        return dataLengths[instructionIndex];
+    }
+
+    public MessageTemplate setRecentBlockHash(String recentBlockhash) {
+        return setRecentBlockHash(Base58.decode(recentBlockhash));
+    }
+
+    public MessageTemplate setRecentBlockHash(byte[] recentBlockhash) {
+        if (recentBlockhash.length != RECENT_BLOCK_HASH_LENGTH) {
+            throw new IllegalArgumentException("Invalid recentBlockhash");
+        }
+        System.arraycopy(recentBlockhash, 0, message, blockhashOffset, RECENT_BLOCK_HASH_LENGTH);
+        return this;
+    }
+
+    /**
+     * Replaces the whole data of an instruction with data of the same length.
+     */
+    public MessageTemplate setInstructionData(int instructionIndex, byte[] data) {
+        if (data.length != dataLengths[instructionIndex]) {
+            throw new IllegalArgumentException("Instruction data length cannot change");
+        }
+        return patchInstructionData(instructionIndex, 0, data);
+    }
+
+    /**
+     * Overwrites {@code bytes.length} bytes of an instruction's data, starting at {@code offset}.
+     */
+    public MessageTemplate patchInstructionData(int instructionIndex, int offset, byte[] bytes) {
+        if (offset < 0 || offset + bytes.length > dataLengths[instructionIndex]) {
+            throw new IllegalArgumentException("Patch exceeds instruction data");
+        }
+        System.arraycopy(bytes, 0, message, dataOffsets[instructionIndex] + offset, bytes.length);
+        return this;
+    }
+
+    /**
+     * @return a copy of the serialized message as currently patched
+     */
+    public byte[] serialize() {
+        return message.clone();
+    }
+
+    public byte[] signAndSerialize(Account signer) {
+        return signAndSerialize(Arrays.asList(signer));
+    }
+
+    /**
+     * Signs the message as currently patched and returns the wire format of the transaction, as
+     * {@link Transaction#serialize()} would.
+     * @param signers one per required signature, in the order of the message's signer keys, fee payer first
+     */
+    public byte[] signAndSerialize(List<Account> signers) {
+        if (signers.size() != getNumRequiredSignatures()) {
+            throw new IllegalArgumentException("Expected " + getNumRequiredSignatures() + " signers");
+        }
+        for (int i = 0; i < signers.size(); i++) {
+            byte[] signerKey = signers.get(i).getPublicKey().bytes();
+            int keyOffset = accountKeysOffset + i * PublicKey.PUBLIC_KEY_LENGTH;
+            if (!Arrays.equals(signerKey, 0, PublicKey.PUBLIC_KEY_LENGTH, message, keyOffset,
+                    keyOffset + PublicKey.PUBLIC_KEY_LENGTH)) {
+                throw new IllegalArgumentException(signers.get(i).getPublicKey() + " is not signer " + i
+                        + " of this message");
+            }
+        }
+
+        int signaturesSize = signers.size();
+        ByteBuffer out = ByteBuffer.allocate(ShortvecEncoding.encodedLength(signaturesSize)
+                + signaturesSize * Transaction.SIGNATURE_LENGTH + message.length);
+
+        ShortvecEncoding.encodeLength(out, signaturesSize);
+        byte[] wire = out.array();
+        // signatures are written straight into the wire buffer
+        for (Account signer : signers) {
+            signer.getSigner().sign(message, 0, message.length, wire, out.position());
+            out.position(out.position() + Transaction.SIGNATURE_LENGTH);
+        }
+        out.put(message);
+
+        return wire;
+    }
+}
@@ -0,0 +1,260 @@
+package org.p2p.solanaj.core;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.p2p.solanaj.core.PublicKey.ProgramDerivedAddress;
+
+/**
+ * Size-bounded cache of program address derivations, keyed by seeds and program id.
+ *
+ * Entries are spread over segments by key hash; each segment evicts its least recently used entry once it is full,
+ * so concurrent lookups rarely contend. Derivations are deterministic, so entries never go stale and can be written
+ * to a snapshot with {@link #save(Path)} and loaded back after a restart with {@link #load(Path)}. Snapshots are
+ * trusted as they are, so keep them where only the application can write.
+ */
+public class ProgramAddressCache {
+
+    private static final int SEGMENTS = 16;
+    private static final int SNAPSHOT_MAGIC = 0x50444143; // "PDAC"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final class Key {
+        // program id followed by each seed, prefixed with its length
+        private final byte[] bytes;
+        private final int hash;
+
+        Key(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        static Key of(List<byte[]> seeds, PublicKey programId) {
+            int length = PublicKey.PUBLIC_KEY_LENGTH;
+            for (byte[] seed : seeds) {
+                if (seed.length > ProgramAddressDeriver.MAX_SEED_LENGTH) {
+                    throw new IllegalArgumentException("Max seed length exceeded");
+                }
+                length += 1 + seed.length;
+            }
+
+            byte[] bytes = new byte[length];
+            programId.copyTo(bytes, 0);
+            int position = PublicKey.PUBLIC_KEY_LENGTH;
+            for (byte[] seed : seeds) {
+                bytes[position++] = (byte) seed.length;
+                System.arraycopy(seed, 0, bytes, position, seed.length);
+                position += seed.length;
+            }
+            return new Key(bytes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && hash == ((Key) o).hash && Arrays.equals(bytes, ((Key) o).bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private final class Segment extends LinkedHashMap<Key, ProgramDerivedAddress> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, ProgramDerivedAddress> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private final int maxSize;
+    private final Segment[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxSize maximum number of derivations kept
+     */
+    public ProgramAddressCache(int maxSize) {
+        if (maxSize < SEGMENTS) {
+            throw new IllegalArgumentException("maxSize must be at least " + SEGMENTS);
+        }
+        this.maxSize = maxSize;
+        this.segments = new Segment[SEGMENTS];
+        // the first maxSize % SEGMENTS segments take one more entry, so capacities add up to maxSize
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(maxSize / SEGMENTS + (i < maxSize % SEGMENTS ? 1 : 0));
+        }
+    }
+
+    /**
+     * Cached {@link ProgramAddressDeriver#findProgramAddress(List, PublicKey)}.
+     * @return the address and nonce, or null if no nonce works
+     */
+    public ProgramDerivedAddress findProgramAddress(List<byte[]> seeds, PublicKey programId) {
+        Key key = Key.of(seeds, programId);
+        Segment segment = segmentFor(key);
+
+        ProgramDerivedAddress cached;
+        synchronized (segment) {
+            cached = segment.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        // derived outside the lock; a racing thread derives the same address
+        ProgramDerivedAddress derived = ProgramAddressDeriver.findProgramAddress(seeds, programId);
+        if (derived != null) {
+            synchronized (segment) {
+                segment.put(key, derived);
+            }
+        }
+        return derived;
+    }
+
+    /**
+     * Cached {@link ProgramAddressDeriver#findAssociatedTokenAddress(PublicKey, PublicKey)}.
+     * @return the associated token account, or null if no nonce works
+     */
+    public PublicKey findAssociatedTokenAddress(PublicKey owner, PublicKey mint) {
+        return ProgramAddressDeriver.addressOf(findProgramAddress(
+                ProgramAddressDeriver.associatedTokenSeeds(owner, mint), ProgramAddressDeriver.ASSOCIATED_TOKEN_PROGRAM_ID));
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return share of lookups answered from the cache, or 0 before the first lookup
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes every cached derivation to {@code file}, replacing it atomically.
+     */
+    public void save(Path file) throws IOException {
+        List<Map.Entry<Key, ProgramDerivedAddress>> entries = new ArrayList<>();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                entries.addAll(new ArrayList<>(segment.entrySet()));
+            }
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(entries.size());
+                for (Map.Entry<Key, ProgramDerivedAddress> entry : entries) {
+                    byte[] key = entry.getKey().bytes;
+                    out.writeShort(key.length);
+                    out.write(key);
+                    out.write(entry.getValue().getAddress().bytes());
+                    out.writeByte(entry.getValue().getNonce());
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Adds the derivations in a snapshot written by {@link #save(Path)}, up to the cache's capacity.
+     * @return number of entries read
+     */
+    public int load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Not a program address cache snapshot: " + file);
+            }
+
+            int count = in.readInt();
+            byte[] address = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+            for (int i = 0; i < count; i++) {
+                byte[] keyBytes = new byte[in.readUnsignedShort()];
+                in.readFully(keyBytes);
+                in.readFully(address);
+                int nonce = in.readUnsignedByte();
+
+                Key key = new Key(keyBytes);
+                Segment segment = segmentFor(key);
+                synchronized (segment) {
+                    segment.put(key, new ProgramDerivedAddress(new PublicKey(address), nonce));
+                }
+            }
+            return count;
+        }
+    }
+
+    private Segment segmentFor(Key key) {
+        int hash = key.hash;
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+}
@@ -0,0 +1,176 @@
+package org.p2p.solanaj.core;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.p2p.solanaj.core.PublicKey.ProgramDerivedAddress;
+import org.p2p.solanaj.utils.TweetNaclFast;
+
+/**
+ * Derives program addresses without exceptions for control flow.
+ *
+ * Each thread reuses one SHA-256 digest, fed the seeds directly rather than through an intermediate buffer, and a
+ * candidate is checked against the curve with a Jacobi symbol instead of a square root. A nonce that lands on the
+ * curve is simply skipped. The bulk methods spread many derivations over a {@link ForkJoinPool}.
+ */
+public class ProgramAddressDeriver {
+
+    public static final int MAX_SEED_LENGTH = 32;
+
+    public static final PublicKey ASSOCIATED_TOKEN_PROGRAM_ID =
+            PublicKey.valueOf("ATokenGPvbdGVxr1b2hvZbsiqW5xWH25efTNsLJA8knL");
+
+    private static final PublicKey TOKEN_PROGRAM_ID = PublicKey.valueOf("TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA");
+    private static final byte[] PDA_MARKER = "ProgramDerivedAddress".getBytes(StandardCharsets.US_ASCII);
+    // derivations per leaf task, each costs a few microseconds
+    private static final int CHUNK_SIZE = 256;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final ForkJoinPool pool;
+
+    public ProgramAddressDeriver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ProgramAddressDeriver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @return the program address for {@code seeds}, or null if it falls on the curve
+     */
+    public static PublicKey createProgramAddress(List<byte[]> seeds, PublicKey programId) {
+        byte[] hash = hash(seeds, null, programId);
+        return isOnCurve(hash) ? null : new PublicKey(hash);
+    }
+
+    /**
+     * Tries nonces from 255 down, like {@link PublicKey#findProgramAddress(List, PublicKey)}.
+     * @return the first off-curve address and its nonce, or null if there is none
+     */
+    public static ProgramDerivedAddress findProgramAddress(List<byte[]> seeds, PublicKey programId) {
+        byte[] nonce = new byte[1];
+        for (int i = 255; i > 0; i--) {
+            nonce[0] = (byte) i;
+            byte[] hash = hash(seeds, nonce, programId);
+            if (!isOnCurve(hash)) {
+                return new ProgramDerivedAddress(new PublicKey(hash), i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the associated token account of {@code owner} for {@code mint}, or null if no nonce works
+     */
+    public static PublicKey findAssociatedTokenAddress(PublicKey owner, PublicKey mint) {
+        return addressOf(findProgramAddress(associatedTokenSeeds(owner, mint), ASSOCIATED_TOKEN_PROGRAM_ID));
+    }
+
+    static PublicKey addressOf(ProgramDerivedAddress pda) {
+        return pda == null ? null : pda.getAddress();
+    }
+
+    static List<byte[]> associatedTokenSeeds(PublicKey owner, PublicKey mint) {
+        return Arrays.asList(owner.bytes(), TOKEN_PROGRAM_ID.bytes(), mint.bytes());
+    }
+
+    /**
+     * {@link #findProgramAddress(List, PublicKey)} for every seed set, in parallel.
+     * @return results in the order of {@code seedSets}, null where no nonce works
+     */
+    public List<ProgramDerivedAddress> findProgramAddresses(List<List<byte[]>> seedSets, PublicKey programId) {
+        ProgramDerivedAddress[] results = new ProgramDerivedAddress[seedSets.size()];
+        pool.invoke(new DeriveTask(seedSets, programId, results, 0, results.length));
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * Associated token accounts of {@code owners.get(i)} for {@code mints.get(i)}, in parallel.
+     * @return addresses in the order of {@code owners}, null where no nonce works
+     */
+    public List<PublicKey> findAssociatedTokenAddresses(List<PublicKey> owners, List<PublicKey> mints) {
+        if (owners.size() != mints.size()) {
+            throw new IllegalArgumentException("Expected as many mints as owners");
+        }
+
+        List<List<byte[]>> seedSets = new ArrayList<>(owners.size());
+        for (int i = 0; i < owners.size(); i++) {
+            seedSets.add(associatedTokenSeeds(owners.get(i), mints.get(i)));
+        }
+
+        List<PublicKey> addresses = new ArrayList<>(owners.size());
+        for (ProgramDerivedAddress pda : findProgramAddresses(seedSets, ASSOCIATED_TOKEN_PROGRAM_ID)) {
+            addresses.add(addressOf(pda));
+        }
+        return addresses;
+    }
+
+    private static byte[] hash(List<byte[]> seeds, byte[] nonce, PublicKey programId) {
+        MessageDigest sha256 = SHA256.get();
+        for (byte[] seed : seeds) {
+            if (seed.length > MAX_SEED_LENGTH) {
+                sha256.reset();
+                throw new IllegalArgumentException("Max seed length exceeded");
+            }
+            sha256.update(seed);
+        }
+        if (nonce != null) {
+            sha256.update(nonce);
+        }
+        sha256.update(programId.bytes());
+        sha256.update(PDA_MARKER);
+        return sha256.digest();
+    }
+
+    private static boolean isOnCurve(byte[] hash) {
+        return TweetNaclFast.is_on_curve_fast(hash) != 0;
+    }
+
+    private static class DeriveTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<List<byte[]>> seedSets;
+        private final PublicKey programId;
+        private final ProgramDerivedAddress[] results;
+        private final int from;
+        private final int to;
+
+        DeriveTask(List<List<byte[]>> seedSets, PublicKey programId, ProgramDerivedAddress[] results, int from,
+                int to) {
+            this.seedSets = seedSets;
+            this.programId = programId;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                for (int i = from; i < to; i++) {
+                    results[i] = findProgramAddress(seedSets.get(i), programId);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new DeriveTask(seedSets, programId, results, from, middle),
+                    new DeriveTask(seedSets, programId, results, middle, to));
+        }
+    }
+}
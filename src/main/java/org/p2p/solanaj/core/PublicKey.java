@@ -1,63 +1,115 @@
 package org.p2p.solanaj.core;
 
-import java.io.ByteArrayOutputStream;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
-import org.bitcoinj.core.Base58;
-import org.bitcoinj.core.Sha256Hash;
+import org.p2p.solanaj.utils.Base58;
 import org.p2p.solanaj.utils.ByteUtils;
-import org.p2p.solanaj.utils.TweetNaclFast;
 
+/**
+ * An ed25519 public key or program address. Instances are immutable: byte arrays are copied on the way in and out.
+ */
 public class PublicKey {
 
     public static final int PUBLIC_KEY_LENGTH = 32;
 
-    private byte[] pubkey;
+    // well-known addresses, so the many references to them share one instance and its cached string
+    private static final Map<String, PublicKey> WELL_KNOWN_BY_NAME = new ConcurrentHashMap<>();
+    private static final Map<PublicKey, PublicKey> WELL_KNOWN = new ConcurrentHashMap<>();
+
+    static {
+        for (String address : Arrays.asList(
+                "11111111111111111111111111111111",
+                "TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA",
+                "TokenzQdBNbLqP5VEhdkAS6EPFLC1PHnBqCXEpPxuEb",
+                "ATokenGPvbdGVxr1b2hvZbsiqW5xWH25efTNsLJA8knL",
+                "Memo1UhkJRfHyvLMcVucJwxXeuD728EqVDDwQDxFMNo",
+                "MemoSq4gqABAXKb96qnH8TysNcWxMyWCqXgDLGmfcHr",
+                "Stake11111111111111111111111111111111111111",
+                "Vote111111111111111111111111111111111111111",
+                "ComputeBudget111111111111111111111111111111",
+                "BPFLoaderUpgradeab1e11111111111111111111111",
+                "SysvarRent111111111111111111111111111111111",
+                "SysvarC1ock11111111111111111111111111111111",
+                "SysvarRecentB1ockHashes11111111111111111111",
+                "Sysvar1nstructions1111111111111111111111111")) {
+            registerWellKnown(new PublicKey(address));
+        }
+    }
+
+    private final byte[] pubkey;
+    private final int hash;
+    // encoded on first use; racing threads compute the same string
+    private String base58;
 
     public PublicKey(String pubkey) {
         if (pubkey.length() < PUBLIC_KEY_LENGTH) {
             throw new IllegalArgumentException("Invalid public key input");
         }
 
-        this.pubkey = Base58.decode(pubkey);
+        this.pubkey = new byte[PUBLIC_KEY_LENGTH];
+        Base58.decode(pubkey, this.pubkey, 0, PUBLIC_KEY_LENGTH);
+        this.hash = hash(this.pubkey);
+        this.base58 = pubkey;
     }
 
     public PublicKey(byte[] pubkey) {
+        this(pubkey.clone(), true);
+    }
 
+    // takes ownership of pubkey
+    private PublicKey(byte[] pubkey, boolean owned) {
         if (pubkey.length > PUBLIC_KEY_LENGTH) {
             throw new IllegalArgumentException("Invalid public key input");
         }
 
         this.pubkey = pubkey;
+        this.hash = hash(pubkey);
     }
 
     public static PublicKey readPubkey(byte[] bytes, int offset) {
         byte[] buf = ByteUtils.readBytes(bytes, offset, PUBLIC_KEY_LENGTH);
-        return new PublicKey(buf);
+        return new PublicKey(buf, true);
     }
 
+    /**
+     * @return a copy of the key bytes
+     */
     public byte[] toByteArray() {
+        return pubkey.clone();
+    }
+
+    /**
+     * Copies the key bytes into {@code destination} at {@code offset}.
+     */
+    public void copyTo(byte[] destination, int offset) {
+        System.arraycopy(pubkey, 0, destination, offset, pubkey.length);
+    }
+
+    // the key bytes themselves, for serialization within the package; must not be modified
+    byte[] bytes() {
         return pubkey;
     }
 
     public String toBase58() {
-        return Base58.encode(pubkey);
+        String result = base58;
+        if (result == null) {
+            result = Base58.encode(pubkey);
+            base58 = result;
+        }
+        return result;
     }
 
     public boolean equals(PublicKey pubkey) {
-        return Arrays.equals(this.pubkey, pubkey.toByteArray());
+        return pubkey != null && hash == pubkey.hash && Arrays.equals(this.pubkey, pubkey.pubkey);
     }
 
     @Override
     public final int hashCode() {
-        int result = 17;
-        if (pubkey != null) {
-            result = 31 * result + Arrays.hashCode(pubkey);
-        }
-        return result;
+        return hash;
     }
 
     @Override
@@ -76,27 +128,48 @@ public class PublicKey {
         return toBase58();
     }
 
-    public static PublicKey createProgramAddress(List<byte[]> seeds, PublicKey programId) {
-        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-
-        for (byte[] seed : seeds) {
-            if (seed.length > 32) {
-                throw new IllegalArgumentException("Max seed length exceeded");
-            }
+    /**
+     * Keys are uniformly random (or hashes, for program addresses), so their first 8 bytes hash as well as all 32.
+     */
+    private static int hash(byte[] pubkey) {
+        if (pubkey.length < 8) {
+            return Arrays.hashCode(pubkey);
+        }
 
-            buffer.writeBytes(seed);
+        long head = 0;
+        for (int i = 0; i < 8; i++) {
+            head = (head << 8) | (pubkey[i] & 0xff);
         }
+        return (int) (head ^ (head >>> 32));
+    }
 
-        buffer.writeBytes(programId.toByteArray());
-        buffer.writeBytes("ProgramDerivedAddress".getBytes());
+    /**
+     * Adds {@code publicKey} to the pool used by {@link #valueOf(String)} and {@link #intern(PublicKey)}, e.g. for the
+     * programs an application talks to most.
+     * @return the pooled instance for this key
+     */
+    public static PublicKey registerWellKnown(PublicKey publicKey) {
+        PublicKey pooled = WELL_KNOWN.computeIfAbsent(publicKey, key -> key);
+        WELL_KNOWN_BY_NAME.putIfAbsent(pooled.toBase58(), pooled);
+        return pooled;
+    }
 
-        byte[] hash = Sha256Hash.hash(buffer.toByteArray());
+    /**
+     * @return the pooled instance if {@code publicKey} is a well-known address, otherwise {@code publicKey} itself
+     */
+    public static PublicKey intern(PublicKey publicKey) {
+        PublicKey pooled = WELL_KNOWN.get(publicKey);
+        return pooled != null ? pooled : publicKey;
+    }
 
-        if (TweetNaclFast.is_on_curve(hash) != 0) {
+    public static PublicKey createProgramAddress(List<byte[]> seeds, PublicKey programId) {
+        PublicKey address = ProgramAddressDeriver.createProgramAddress(seeds, programId);
+
+        if (address == null) {
             throw new RuntimeException("Invalid seeds, address must fall off the curve");
         }
 
-        return new PublicKey(hash);
+        return address;
     }
 
     public static class ProgramDerivedAddress {
@@ -119,30 +192,21 @@ public class PublicKey {
     }
 
     public static ProgramDerivedAddress findProgramAddress(List<byte[]> seeds, PublicKey programId) throws Exception {
-        int nonce = 255;
-        PublicKey address;
-
-        List<byte[]> seedsWithNonce = new ArrayList<byte[]>();
-        seedsWithNonce.addAll(seeds);
-
-        while (nonce != 0) {
-            try {
-                seedsWithNonce.add(new byte[] { (byte) nonce });
-                address = createProgramAddress(seedsWithNonce, programId);
-            } catch (Exception e) {
-                seedsWithNonce.remove(seedsWithNonce.size() - 1);
-                nonce--;
-                continue;
-            }
-
-            return new ProgramDerivedAddress(address, nonce);
+        ProgramDerivedAddress address = ProgramAddressDeriver.findProgramAddress(seeds, programId);
+
+        if (address == null) {
+            throw new Exception("Unable to find a viable program address nonce");
         }
 
-        throw new Exception("Unable to find a viable program address nonce");
+        return address;
     }
 
+    /**
+     * Like {@link #PublicKey(String)}, but returns the shared instance for well-known addresses.
+     */
     public static PublicKey valueOf(String publicKey) {
-        return new PublicKey(publicKey);
+        PublicKey pooled = WELL_KNOWN_BY_NAME.get(publicKey);
+        return pooled != null ? pooled : new PublicKey(publicKey);
     }
 
 }
@@ -1,6 +1,6 @@
 package org.p2p.solanaj.core;
 
 public class Sysvar {
-    public static final PublicKey SYSVAR_RENT_ADDRESS = new PublicKey("SysvarRent111111111111111111111111111111111");
+    public static final PublicKey SYSVAR_RENT_ADDRESS = PublicKey.valueOf("SysvarRent111111111111111111111111111111111");
 
 }
@@ -4,22 +4,26 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
-import org.bitcoinj.core.Base58;
 import org.p2p.solanaj.utils.ShortvecEncoding;
-import org.p2p.solanaj.utils.TweetNaclFast;
 
 public class Transaction {
 
     public static final int SIGNATURE_LENGTH = 64;
 
     private Message message;
-    private List<String> signatures;
     private byte[] serializedMessage;
+    // one slot per required signer, in message key order; null until that signer has signed
+    private byte[][] signatures;
+    private List<PublicKey> signerKeys;
+    private Executor signingExecutor = ForkJoinPool.commonPool();
 
     public Transaction() {
         this.message = new Message();
-        this.signatures = new ArrayList<String>();
     }
 
     public Transaction addInstruction(TransactionInstruction instruction) {
@@ -32,31 +36,155 @@ public class Transaction {
         message.setRecentBlockHash(recentBlockhash);
     }
 
+    /**
+     * Executor signatures are computed on when signing with several signers at once, the common pool by default.
+     * With null, signers sign one after another on the calling thread.
+     */
+    public void setSigningExecutor(Executor signingExecutor) {
+        this.signingExecutor = signingExecutor;
+    }
+
     public void sign(Account signer) {
         sign(Arrays.asList(signer));
     }
 
+    /**
+     * Compiles the message with the first signer as fee payer and signs it with every signer. Signers may be a subset
+     * of the required ones; the missing signatures can be added later with {@link #addSignature(int, byte[])}.
+     */
     public void sign(List<Account> signers) {
+        sign(signers, signingExecutor);
+    }
+
+    void sign(List<Account> signers, Executor executor) {
 
         if (signers.size() == 0) {
             throw new IllegalArgumentException("No signers");
         }
 
-        Account feePayer = signers.get(0);
-        message.setFeePayer(feePayer);
+        compileMessage(signers.get(0).getPublicKey());
+
+        int[] slots = new int[signers.size()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = requireSignerIndex(signers.get(i).getPublicKey());
+        }
+
+        if (signers.size() == 1 || executor == null) {
+            for (int i = 0; i < slots.length; i++) {
+                signatures[slots[i]] = detachedSignature(signers.get(i));
+            }
+            return;
+        }
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            Account signer = signers.get(i);
+            int slot = slots[i];
+            futures[i] = CompletableFuture.runAsync(() -> signatures[slot] = detachedSignature(signer), executor);
+        }
 
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Compiles the message without signing it, e.g. to hand it to offline co-signers. Any signatures collected
+     * before are dropped.
+     * @return a copy of the serialized message, the bytes each signer has to sign
+     */
+    public byte[] compileMessage(PublicKey feePayer) {
+        message.setFeePayer(feePayer);
         serializedMessage = message.serialize();
 
-        for (Account signer : signers) {
-            TweetNaclFast.Signature signatureProvider = new TweetNaclFast.Signature(new byte[0], signer.getSecretKey());
-            byte[] signature = signatureProvider.detached(serializedMessage);
+        ByteBuffer in = ByteBuffer.wrap(serializedMessage);
+        int numRequiredSignatures = in.get() & 0xff;
+        // numReadonlySignedAccounts, numReadonlyUnsignedAccounts
+        in.position(in.position() + 2);
+        ShortvecEncoding.decodeLength(in);
+
+        // signers come first in the account keys
+        signerKeys = new ArrayList<>(numRequiredSignatures);
+        byte[] key = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+        for (int i = 0; i < numRequiredSignatures; i++) {
+            in.get(key);
+            signerKeys.add(new PublicKey(key));
+        }
+        signatures = new byte[numRequiredSignatures][];
+
+        return serializedMessage.clone();
+    }
 
-            signatures.add(Base58.encode(signature));
+    /**
+     * @return a copy of the compiled message
+     */
+    public byte[] getSerializedMessage() {
+        requireCompiled();
+        return serializedMessage.clone();
+    }
+
+    /**
+     * @return the public keys whose signatures the compiled message requires, in signature slot order
+     */
+    public List<PublicKey> getSignerKeys() {
+        requireCompiled();
+        return new ArrayList<>(signerKeys);
+    }
+
+    /**
+     * @return the signature slot of {@code signer}, or -1 if it is not a required signer
+     */
+    public int getSignerIndex(PublicKey signer) {
+        requireCompiled();
+        return signerKeys.indexOf(signer);
+    }
+
+    /**
+     * Adds a signature produced elsewhere over {@link #getSerializedMessage()}, without recompiling the message.
+     */
+    public void addSignature(int signerIndex, byte[] signature) {
+        requireCompiled();
+        if (signerIndex < 0 || signerIndex >= signatures.length) {
+            throw new IllegalArgumentException("Invalid signer index " + signerIndex);
+        }
+        if (signature.length != SIGNATURE_LENGTH) {
+            throw new IllegalArgumentException("Invalid signature length");
+        }
+
+        signatures[signerIndex] = signature.clone();
+    }
+
+    public void addSignature(PublicKey signer, byte[] signature) {
+        addSignature(requireSignerIndex(signer), signature);
+    }
+
+    /**
+     * @return whether every required signer has signed
+     */
+    public boolean isFullySigned() {
+        if (signatures == null) {
+            return false;
         }
+        for (byte[] signature : signatures) {
+            if (signature == null) {
+                return false;
+            }
+        }
+        return true;
     }
 
+    /**
+     * Serializes the signed transaction. Slots of signers that have not signed yet are written as zeros.
+     */
     public byte[] serialize() {
-        int signaturesSize = signatures.size();
+        requireCompiled();
+
+        int signaturesSize = signatures.length;
         byte[] signaturesLength = ShortvecEncoding.encodeLength(signaturesSize);
 
         ByteBuffer out = ByteBuffer
@@ -64,13 +192,34 @@ public class Transaction {
 
         out.put(signaturesLength);
 
-        for (String signature : signatures) {
-            byte[] rawSignature = Base58.decode(signature);
-            out.put(rawSignature);
+        for (byte[] signature : signatures) {
+            if (signature == null) {
+                out.position(out.position() + SIGNATURE_LENGTH);
+            } else {
+                out.put(signature);
+            }
         }
 
         out.put(serializedMessage);
 
         return out.array();
     }
+
+    private byte[] detachedSignature(Account signer) {
+        return signer.getSigner().sign(serializedMessage);
+    }
+
+    private int requireSignerIndex(PublicKey signer) {
+        int index = getSignerIndex(signer);
+        if (index < 0) {
+            throw new IllegalArgumentException(signer + " is not a signer of this transaction");
+        }
+        return index;
+    }
+
+    private void requireCompiled() {
+        if (serializedMessage == null) {
+            throw new IllegalStateException("Transaction is not compiled, sign it first");
+        }
+    }
 }
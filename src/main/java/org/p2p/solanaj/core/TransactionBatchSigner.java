@@ -0,0 +1,128 @@
+package org.p2p.solanaj.core;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Signs and serializes many transactions at once, spread over the workers of a {@link ForkJoinPool}.
+ *
+ * Each transaction is compiled and signed by one worker, with its signers one after another, so a batch scales
+ * with the pool's parallelism rather than with the number of signers per transaction. Transactions must not be
+ * shared between entries of a batch or modified while it is being signed.
+ */
+public class TransactionBatchSigner {
+
+    // transactions per leaf task; signing one takes tens of microseconds, so small leaves keep all workers busy
+    private static final int DEFAULT_CHUNK_SIZE = 16;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public TransactionBatchSigner() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public TransactionBatchSigner(ForkJoinPool pool) {
+        this(pool, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param pool pool the batch is signed on
+     * @param chunkSize number of transactions a single task signs before the batch is not split further
+     */
+    public TransactionBatchSigner(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Signs every transaction with the same signers, the first one paying the fees.
+     * @return wire-ready transactions, in the order of {@code transactions}
+     */
+    public List<byte[]> sign(List<Transaction> transactions, List<Account> signers) {
+        return signEach(transactions, Collections.nCopies(transactions.size(), signers));
+    }
+
+    /**
+     * Signs {@code transactions.get(i)} with {@code signers.get(i)}, the first signer of each paying its fees.
+     * @return wire-ready transactions, in the order of {@code transactions}
+     */
+    public List<byte[]> signEach(List<Transaction> transactions, List<List<Account>> signers) {
+        if (transactions.size() != signers.size()) {
+            throw new IllegalArgumentException("Expected signers for each of the " + transactions.size()
+                    + " transactions, got " + signers.size());
+        }
+
+        byte[][] serialized = new byte[transactions.size()][];
+        pool.invoke(new SignTask(transactions, signers, serialized, 0, serialized.length));
+
+        List<byte[]> result = new ArrayList<>(serialized.length);
+        Collections.addAll(result, serialized);
+        return result;
+    }
+
+    /**
+     * Like {@link #sign(List, List)}, encoded as base64 for sendTransaction.
+     */
+    public List<String> signToBase64(List<Transaction> transactions, List<Account> signers) {
+        return toBase64(sign(transactions, signers));
+    }
+
+    /**
+     * Like {@link #signEach(List, List)}, encoded as base64 for sendTransaction.
+     */
+    public List<String> signEachToBase64(List<Transaction> transactions, List<List<Account>> signers) {
+        return toBase64(signEach(transactions, signers));
+    }
+
+    private static List<String> toBase64(List<byte[]> serialized) {
+        Base64.Encoder encoder = Base64.getEncoder();
+        List<String> result = new ArrayList<>(serialized.size());
+        for (byte[] transaction : serialized) {
+            result.add(encoder.encodeToString(transaction));
+        }
+        return result;
+    }
+
+    private class SignTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Transaction> transactions;
+        private final List<List<Account>> signers;
+        private final byte[][] serialized;
+        private final int from;
+        private final int to;
+
+        SignTask(List<Transaction> transactions, List<List<Account>> signers, byte[][] serialized, int from, int to) {
+            this.transactions = transactions;
+            this.signers = signers;
+            this.serialized = serialized;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    Transaction transaction = transactions.get(i);
+                    // the batch already keeps every worker busy; no nested parallelism per transaction
+                    transaction.sign(signers.get(i), null);
+                    serialized[i] = transaction.serialize();
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new SignTask(transactions, signers, serialized, from, middle),
+                    new SignTask(transactions, signers, serialized, middle, to));
+        }
+    }
+}
@@ -13,7 +13,7 @@ import java.util.List;
  */
 public class MemoProgram extends Program {
 
-    public static final PublicKey PROGRAM_ID = new PublicKey("Memo1UhkJRfHyvLMcVucJwxXeuD728EqVDDwQDxFMNo");
+    public static final PublicKey PROGRAM_ID = PublicKey.valueOf("Memo1UhkJRfHyvLMcVucJwxXeuD728EqVDDwQDxFMNo");
 
     /**
      * Returns a {@link TransactionInstruction} object containing instructions to call the Memo program with the
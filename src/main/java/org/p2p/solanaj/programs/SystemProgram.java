@@ -9,7 +9,7 @@ import org.p2p.solanaj.core.AccountMeta;
 import static org.bitcoinj.core.Utils.*;
 
 public class SystemProgram extends Program {
-    public static final PublicKey PROGRAM_ID = new PublicKey("11111111111111111111111111111111");
+    public static final PublicKey PROGRAM_ID = PublicKey.valueOf("11111111111111111111111111111111");
 
     public static final int PROGRAM_INDEX_CREATE_ACCOUNT = 0;
     public static final int PROGRAM_INDEX_TRANSFER = 2;
@@ -37,7 +37,7 @@ public class SystemProgram extends Program {
         uint32ToByteArrayLE(PROGRAM_INDEX_CREATE_ACCOUNT, data, 0);
         int64ToByteArrayLE(lamports, data, 4);
         int64ToByteArrayLE(space, data, 12);
-        System.arraycopy(programId.toByteArray(), 0, data, 20, 32);
+        programId.copyTo(data, 20);
 
         return createTransactionInstruction(PROGRAM_ID, keys, data);
     }
@@ -0,0 +1,212 @@
+package org.p2p.solanaj.rpc;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.p2p.solanaj.rpc.types.RecentBlockhash;
+import org.p2p.solanaj.rpc.types.config.Commitment;
+
+/**
+ * Keeps a recent blockhash in memory per {@link Commitment} so sending a transaction does not need a
+ * getRecentBlockhash round trip first.
+ *
+ * The first request for a commitment fetches a blockhash and starts refreshing it in the background. A cached
+ * blockhash is reused until it is {@code maxAgeSlots} slots old (estimated from wall-clock time at 400ms per slot);
+ * past that, or after {@link #invalidate()}, the next caller fetches a new one, blocking in
+ * {@link #getBlockhash(Commitment)} and without blocking in {@link #getBlockhashAsync(Commitment)}. Solana accepts
+ * blockhashes up to 150 slots old, so {@code maxAgeSlots} should stay comfortably below that.
+ *
+ * {@link #close()} stops the background refresh; blockhashes are then fetched on demand only.
+ */
+public class BlockhashProvider implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(BlockhashProvider.class.getName());
+    private static final long SLOT_NANOS = TimeUnit.MILLISECONDS.toNanos(400);
+    private static final int DEFAULT_MAX_AGE_SLOTS = 60;
+    // ConcurrentHashMap does not allow null keys; stands in for the node's default commitment
+    private static final String DEFAULT_COMMITMENT = "";
+
+    private static class CachedBlockhash {
+        final String blockhash;
+        final long slot;
+        final long fetchedAtNanos;
+
+        CachedBlockhash(String blockhash, long slot, long fetchedAtNanos) {
+            this.blockhash = blockhash;
+            this.slot = slot;
+            this.fetchedAtNanos = fetchedAtNanos;
+        }
+    }
+
+    private final RpcApi api;
+    private final long maxAgeNanos;
+    private final long refreshIntervalNanos;
+    private final Map<String, CachedBlockhash> cache = new ConcurrentHashMap<>();
+    private final Map<String, ScheduledFuture<?>> refreshing = new ConcurrentHashMap<>();
+    // async fetches in progress, shared by every caller waiting on the same commitment
+    private final Map<String, CompletableFuture<CachedBlockhash>> fetching = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "solanaj-blockhash-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BlockhashProvider(RpcApi api) {
+        this(api, DEFAULT_MAX_AGE_SLOTS);
+    }
+
+    /**
+     * @param api api used to fetch blockhashes
+     * @param maxAgeSlots how many slots a blockhash is reused for; it is refreshed in the background every half of
+     *                    that
+     */
+    public BlockhashProvider(RpcApi api, int maxAgeSlots) {
+        this(api, checkMaxAge(maxAgeSlots) * SLOT_NANOS, Math.max(SLOT_NANOS, maxAgeSlots * SLOT_NANOS / 2));
+    }
+
+    BlockhashProvider(RpcApi api, long maxAgeNanos, long refreshIntervalNanos) {
+        this.api = api;
+        this.maxAgeNanos = maxAgeNanos;
+        this.refreshIntervalNanos = refreshIntervalNanos;
+    }
+
+    private static long checkMaxAge(int maxAgeSlots) {
+        if (maxAgeSlots < 1) {
+            throw new IllegalArgumentException("maxAgeSlots must be positive");
+        }
+        return maxAgeSlots;
+    }
+
+    public String getBlockhash() throws RpcException {
+        return getBlockhash(null);
+    }
+
+    /**
+     * @param commitment commitment to fetch the blockhash at, or null for the node's default
+     * @return a blockhash at most {@code maxAgeSlots} old, from memory when possible. A fetch, when one is needed,
+     * is shared with every other caller, blocking or not, asking for the same commitment meanwhile.
+     */
+    public String getBlockhash(Commitment commitment) throws RpcException {
+        CachedBlockhash cached = cache.get(key(commitment));
+        if (!isStale(cached)) {
+            return cached.blockhash;
+        }
+
+        try {
+            return getBlockhashAsync(commitment).get();
+        } catch (ExecutionException e) {
+            throw RpcClient.toRpcException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RpcException(e.getMessage());
+        }
+    }
+
+    public CompletableFuture<String> getBlockhashAsync() {
+        return getBlockhashAsync(null);
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #getBlockhash(Commitment)}. A fetch, when one is needed, is shared by every
+     * caller asking for the same commitment meanwhile.
+     */
+    public CompletableFuture<String> getBlockhashAsync(Commitment commitment) {
+        String key = key(commitment);
+        CachedBlockhash cached = cache.get(key);
+        if (!isStale(cached)) {
+            return CompletableFuture.completedFuture(cached.blockhash);
+        }
+
+        CompletableFuture<CachedBlockhash> fetch = fetching.get(key);
+        if (fetch == null) {
+            CompletableFuture<CachedBlockhash> started = new CompletableFuture<>();
+            fetch = fetching.putIfAbsent(key, started);
+            if (fetch == null) {
+                fetch = started;
+                api.getRecentBlockhashWithContextAsync(commitment).whenComplete((recentBlockhash, error) -> {
+                    fetching.remove(key, started);
+                    if (error != null) {
+                        started.completeExceptionally(RpcClient.toRpcException(error));
+                    } else {
+                        started.complete(store(commitment, recentBlockhash, System.nanoTime()));
+                        startRefreshing(commitment);
+                    }
+                });
+            }
+        }
+
+        return fetch.thenApply(fetched -> fetched.blockhash);
+    }
+
+    /**
+     * @return context slot the cached blockhash was fetched at, or -1 if none is cached
+     */
+    public long getBlockhashSlot(Commitment commitment) {
+        CachedBlockhash cached = cache.get(key(commitment));
+        return cached == null ? -1 : cached.slot;
+    }
+
+    /**
+     * Drops every cached blockhash, e.g. after a node rejected one as not found.
+     */
+    public void invalidate() {
+        cache.clear();
+    }
+
+    /**
+     * Stops refreshing in the background. The provider stays usable and fetches blockhashes when asked.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        scheduler.shutdownNow();
+        refreshing.clear();
+    }
+
+    private boolean isStale(CachedBlockhash cached) {
+        return cached == null || System.nanoTime() - cached.fetchedAtNanos > maxAgeNanos;
+    }
+
+    private CachedBlockhash fetch(Commitment commitment) throws RpcException {
+        long fetchedAt = System.nanoTime();
+        return store(commitment, api.getRecentBlockhashWithContext(commitment), fetchedAt);
+    }
+
+    private CachedBlockhash store(Commitment commitment, RecentBlockhash recentBlockhash, long fetchedAt) {
+        long slot = recentBlockhash.getContext() == null ? -1 : recentBlockhash.getContext().getSlot();
+
+        CachedBlockhash cached = new CachedBlockhash(recentBlockhash.getValue().getBlockhash(), slot, fetchedAt);
+        cache.put(key(commitment), cached);
+        return cached;
+    }
+
+    private synchronized void startRefreshing(Commitment commitment) {
+        String key = key(commitment);
+        if (closed || refreshing.containsKey(key)) {
+            return;
+        }
+
+        refreshing.put(key, scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                fetch(commitment);
+            } catch (RpcException | RuntimeException e) {
+                // the next caller fetches synchronously once the cached blockhash expires
+                LOGGER.log(Level.WARNING, "Unable to refresh blockhash", e);
+            }
+        }, refreshIntervalNanos, refreshIntervalNanos, TimeUnit.NANOSECONDS));
+    }
+
+    private static String key(Commitment commitment) {
+        return commitment == null ? DEFAULT_COMMITMENT : commitment.getValue();
+    }
+}
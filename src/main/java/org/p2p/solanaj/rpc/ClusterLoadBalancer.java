@@ -0,0 +1,364 @@
+package org.p2p.solanaj.rpc;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import org.p2p.solanaj.rpc.types.WeightedEndpoint;
+
+/**
+ * Health-aware endpoint selection over a {@link WeightedCluster}.
+ *
+ * Candidates are drawn in O(1) from an alias table built from the static endpoint weights. Two candidates are drawn
+ * per pick ("power of two choices") and the one with the better health score wins; with no health data yet, the
+ * first draw wins, so selection falls back to the plain weighted distribution.
+ *
+ * The score combines an EWMA of request latency, an EWMA of the error rate and how far the endpoint's last reported
+ * slot lags the best slot seen across the cluster. Endpoints that fail {@code failureThreshold} times in a row are
+ * ejected by a circuit breaker for {@code openDuration}, after which they are tried again; endpoints lagging more
+ * than {@code maxSlotLag} slots are skipped while a healthier one is available.
+ *
+ * Registered as an OkHttp interceptor on the {@link RpcClient}, it measures every request it sees.
+ */
+public class ClusterLoadBalancer implements Interceptor {
+
+    private static final double LATENCY_ALPHA = 0.2;
+    private static final double ERROR_ALPHA = 0.1;
+    private static final int MAX_DRAWS = 8;
+    private static final int LATENCY_SAMPLES = 128;
+
+    /**
+     * Live health statistics of one endpoint.
+     */
+    public static class EndpointHealth {
+        private final String url;
+        private final int weight;
+
+        private volatile double latencyEwmaNanos;
+        private volatile double errorRateEwma;
+        private volatile long lastSlot = -1;
+        private volatile int consecutiveFailures;
+        private volatile long openUntilNanos;
+
+        // ring of recent successful latencies, for percentile estimates
+        private final long[] latencySamples = new long[LATENCY_SAMPLES];
+        private int sampleCount;
+        private int nextSample;
+
+        EndpointHealth(String url, int weight) {
+            this.url = url;
+            this.weight = weight;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public double getLatencyEwmaMillis() {
+            return latencyEwmaNanos / 1e6d;
+        }
+
+        public double getErrorRate() {
+            return errorRateEwma;
+        }
+
+        public long getLastSlot() {
+            return lastSlot;
+        }
+
+        public boolean isEjected() {
+            return System.nanoTime() < openUntilNanos;
+        }
+
+        /**
+         * @param percentile between 0 and 1, e.g. 0.95
+         * @return latency percentile over recent successful requests, or -1 if there are none yet
+         */
+        public synchronized long getLatencyPercentileNanos(double percentile) {
+            if (sampleCount == 0) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(latencySamples, sampleCount);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(sampleCount - 1, Math.floor(percentile * sampleCount))];
+        }
+
+        synchronized void recordSuccess(long latencyNanos) {
+            latencyEwmaNanos = latencyEwmaNanos == 0
+                    ? latencyNanos
+                    : latencyEwmaNanos + LATENCY_ALPHA * (latencyNanos - latencyEwmaNanos);
+            errorRateEwma -= ERROR_ALPHA * errorRateEwma;
+            consecutiveFailures = 0;
+            latencySamples[nextSample] = latencyNanos;
+            nextSample = (nextSample + 1) % LATENCY_SAMPLES;
+            sampleCount = Math.min(sampleCount + 1, LATENCY_SAMPLES);
+        }
+
+        synchronized void recordFailure(long latencyNanos, int failureThreshold, long openDurationNanos) {
+            // a failure costs at least as much as the slowest success we have seen
+            latencyEwmaNanos = Math.max(latencyEwmaNanos, latencyNanos);
+            errorRateEwma += ERROR_ALPHA * (1 - errorRateEwma);
+            consecutiveFailures++;
+            if (consecutiveFailures >= failureThreshold) {
+                openUntilNanos = System.nanoTime() + openDurationNanos;
+            }
+        }
+
+        void recordSlot(long slot) {
+            if (slot > lastSlot) {
+                lastSlot = slot;
+            }
+        }
+    }
+
+    private final List<EndpointHealth> endpoints;
+    private final Map<String, EndpointHealth> endpointsByUrl = new HashMap<>();
+    private final AtomicLong bestSlot = new AtomicLong(-1);
+
+    // Vose alias table over the static weights
+    private final double[] probability;
+    private final int[] alias;
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final long maxSlotLag;
+    private final double slotLagPenaltyNanos;
+    private final double errorPenaltyNanos;
+
+    public ClusterLoadBalancer(WeightedCluster cluster) {
+        this(cluster, 5, 30, TimeUnit.SECONDS, 150);
+    }
+
+    /**
+     * @param cluster endpoints and their static weights
+     * @param failureThreshold consecutive failures before an endpoint is ejected
+     * @param openDuration how long an ejected endpoint is skipped
+     * @param unit unit of {@code openDuration}
+     * @param maxSlotLag slots behind the cluster's best slot before an endpoint is skipped
+     */
+    public ClusterLoadBalancer(WeightedCluster cluster, int failureThreshold, long openDuration, TimeUnit unit,
+            long maxSlotLag) {
+        List<WeightedEndpoint> weightedEndpoints = cluster.getEndpoints();
+        if (weightedEndpoints == null || weightedEndpoints.isEmpty()) {
+            throw new IllegalArgumentException("cluster has no endpoints");
+        }
+
+        List<EndpointHealth> health = new ArrayList<>(weightedEndpoints.size());
+        for (WeightedEndpoint endpoint : weightedEndpoints) {
+            EndpointHealth endpointHealth = new EndpointHealth(endpoint.getUrl(), endpoint.getWeight());
+            health.add(endpointHealth);
+            endpointsByUrl.put(normalize(endpoint.getUrl()), endpointHealth);
+        }
+        this.endpoints = Collections.unmodifiableList(health);
+
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = unit.toNanos(openDuration);
+        this.maxSlotLag = maxSlotLag;
+        // one slot behind is roughly as bad as one slot time (400ms) of extra latency
+        this.slotLagPenaltyNanos = TimeUnit.MILLISECONDS.toNanos(400);
+        this.errorPenaltyNanos = TimeUnit.SECONDS.toNanos(1);
+
+        int n = endpoints.size();
+        this.probability = new double[n];
+        this.alias = new int[n];
+        buildAliasTable();
+    }
+
+    private void buildAliasTable() {
+        int n = endpoints.size();
+        long totalWeight = 0;
+        for (EndpointHealth endpoint : endpoints) {
+            totalWeight += endpoint.weight;
+        }
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("cluster weights must sum to a positive number");
+        }
+
+        double[] scaled = new double[n];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            scaled[i] = (double) endpoints.get(i).weight * n / totalWeight;
+            if (scaled[i] < 1) {
+                small.push(i);
+            } else {
+                large.push(i);
+            }
+        }
+
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) {
+                small.push(more);
+            } else {
+                large.push(more);
+            }
+        }
+        while (!large.isEmpty()) {
+            probability[large.pop()] = 1;
+        }
+        while (!small.isEmpty()) {
+            probability[small.pop()] = 1;
+        }
+    }
+
+    /**
+     * @return the endpoint to send the next request to
+     */
+    public EndpointHealth select() {
+        return select(Collections.emptySet());
+    }
+
+    /**
+     * Like {@link #select()}, but never returns one of {@code excluded}, e.g. endpoints that already failed or are
+     * already serving the same request.
+     * @return the endpoint to send the next request to, or null if every endpoint is excluded
+     */
+    public EndpointHealth select(Collection<EndpointHealth> excluded) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = System.nanoTime();
+
+        EndpointHealth first = null;
+        EndpointHealth fallback = null;
+        for (int draw = 0; draw < MAX_DRAWS; draw++) {
+            EndpointHealth candidate = draw(random);
+            if (excluded.contains(candidate)) {
+                continue;
+            }
+            if (fallback == null) {
+                fallback = candidate;
+            }
+            if (!isAvailable(candidate, now)) {
+                continue;
+            }
+            if (first == null) {
+                first = candidate;
+            } else if (candidate != first || endpoints.size() == 1) {
+                return score(candidate) < score(first) ? candidate : first;
+            }
+        }
+
+        if (first != null) {
+            return first;
+        }
+        // everything sampled is ejected; prefer any available endpoint before giving up on health entirely
+        for (EndpointHealth endpoint : endpoints) {
+            if (!excluded.contains(endpoint) && isAvailable(endpoint, now)) {
+                return endpoint;
+            }
+        }
+        if (fallback == null) {
+            for (EndpointHealth endpoint : endpoints) {
+                if (!excluded.contains(endpoint)) {
+                    return endpoint;
+                }
+            }
+        }
+        return fallback;
+    }
+
+    public List<EndpointHealth> getEndpoints() {
+        return endpoints;
+    }
+
+    public void recordSuccess(String url, long latencyNanos) {
+        EndpointHealth endpoint = endpointsByUrl.get(normalize(url));
+        if (endpoint != null) {
+            endpoint.recordSuccess(latencyNanos);
+        }
+    }
+
+    public void recordFailure(String url, long latencyNanos) {
+        EndpointHealth endpoint = endpointsByUrl.get(normalize(url));
+        if (endpoint != null) {
+            endpoint.recordFailure(latencyNanos, failureThreshold, openDurationNanos);
+        }
+    }
+
+    /**
+     * Records the context slot an endpoint answered with, used to detect nodes falling behind the cluster.
+     */
+    public void recordSlot(String url, long slot) {
+        EndpointHealth endpoint = endpointsByUrl.get(normalize(url));
+        if (endpoint != null) {
+            endpoint.recordSlot(slot);
+            bestSlot.accumulateAndGet(slot, Math::max);
+        }
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String url = request.url().toString();
+        long start = System.nanoTime();
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            // a cancelled call, e.g. the losing hedged request, says nothing about the endpoint
+            if (!chain.call().isCanceled()) {
+                recordFailure(url, System.nanoTime() - start);
+            }
+            throw e;
+        }
+
+        long latency = System.nanoTime() - start;
+        // 429 and 5xx mean the node is overloaded or broken; other statuses are the caller's problem
+        if (response.code() == 429 || response.code() >= 500) {
+            recordFailure(url, latency);
+        } else {
+            recordSuccess(url, latency);
+        }
+
+        return response;
+    }
+
+    private EndpointHealth draw(ThreadLocalRandom random) {
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? endpoints.get(column) : endpoints.get(alias[column]);
+    }
+
+    private boolean isAvailable(EndpointHealth endpoint, long now) {
+        if (now < endpoint.openUntilNanos) {
+            return false;
+        }
+        long best = bestSlot.get();
+        return endpoint.lastSlot < 0 || best - endpoint.lastSlot <= maxSlotLag;
+    }
+
+    private double score(EndpointHealth endpoint) {
+        long lag = endpoint.lastSlot < 0 ? 0 : Math.max(0, bestSlot.get() - endpoint.lastSlot);
+        return endpoint.latencyEwmaNanos
+                + endpoint.errorRateEwma * errorPenaltyNanos
+                + lag * slotLagPenaltyNanos;
+    }
+
+    private static String normalize(String url) {
+        HttpUrl httpUrl = HttpUrl.parse(url);
+        return httpUrl != null ? httpUrl.toString() : url;
+    }
+}
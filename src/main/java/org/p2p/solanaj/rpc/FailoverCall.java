@@ -0,0 +1,153 @@
+package org.p2p.solanaj.rpc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One read-only call spread over the endpoints of a {@link WeightedCluster}.
+ *
+ * The request goes to the endpoint picked by the {@link ClusterLoadBalancer}. If it fails at the transport level, it
+ * is retried on an endpoint not tried yet, up to {@code maxAttempts} in total. With hedging enabled, a second
+ * request is also sent to another endpoint once the first has been outstanding for longer than the first
+ * endpoint's p95 latency; whichever answers first wins and the other request is cancelled. Error responses from a
+ * node are returned as they are, since another node would give the same answer.
+ */
+class FailoverCall<T> {
+
+    private static final double HEDGE_PERCENTILE = 0.95;
+    private static final long MIN_HEDGE_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    // used until an endpoint has latency samples
+    private static final long DEFAULT_HEDGE_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private static final ScheduledExecutorService HEDGE_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "solanaj-rpc-hedge");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final RpcClient client;
+    private final ClusterLoadBalancer loadBalancer;
+    private final int maxAttempts;
+    private final boolean hedging;
+    private final String method;
+    private final List<Object> params;
+    private final Class<T> clazz;
+
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    // guarded by this
+    private final List<ClusterLoadBalancer.EndpointHealth> tried = new ArrayList<>();
+    private final List<CompletableFuture<T>> attempts = new ArrayList<>();
+    private int inFlight;
+    private Throwable lastError;
+
+    FailoverCall(RpcClient client, ClusterLoadBalancer loadBalancer, int maxAttempts, boolean hedging, String method,
+            List<Object> params, Class<T> clazz) {
+        this.client = client;
+        this.loadBalancer = loadBalancer;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.hedging = hedging;
+        this.method = method;
+        this.params = params;
+        this.clazz = clazz;
+    }
+
+    CompletableFuture<T> start() {
+        // once decided, or cancelled by the caller, nothing still in flight is needed
+        result.whenComplete((value, error) -> cancelAttempts());
+
+        ClusterLoadBalancer.EndpointHealth primary = attempt();
+
+        if (hedging && primary != null && maxAttempts > 1) {
+            long p95 = primary.getLatencyPercentileNanos(HEDGE_PERCENTILE);
+            long delay = p95 < 0 ? DEFAULT_HEDGE_DELAY_NANOS : Math.max(MIN_HEDGE_DELAY_NANOS, p95);
+            HEDGE_SCHEDULER.schedule(() -> {
+                if (!result.isDone()) {
+                    attempt();
+                }
+            }, delay, TimeUnit.NANOSECONDS);
+        }
+
+        return result;
+    }
+
+    /**
+     * Sends the request to an endpoint not tried yet, if the attempt budget allows.
+     * @return the endpoint used, or null if no attempt was made
+     */
+    private ClusterLoadBalancer.EndpointHealth attempt() {
+        ClusterLoadBalancer.EndpointHealth endpoint;
+        synchronized (this) {
+            if (result.isDone() || tried.size() >= maxAttempts) {
+                return null;
+            }
+            endpoint = loadBalancer.select(tried);
+            if (endpoint == null) {
+                return null;
+            }
+            tried.add(endpoint);
+            inFlight++;
+        }
+
+        CompletableFuture<T> call = client.executeAsync(endpoint.getUrl(), method, params, clazz);
+        synchronized (this) {
+            attempts.add(call);
+        }
+        if (result.isDone()) {
+            call.cancel(false);
+        }
+        call.whenComplete(this::onAttemptComplete);
+        return endpoint;
+    }
+
+    private void cancelAttempts() {
+        List<CompletableFuture<T>> outstanding;
+        synchronized (this) {
+            outstanding = new ArrayList<>(attempts);
+        }
+        for (CompletableFuture<T> call : outstanding) {
+            call.cancel(false);
+        }
+    }
+
+    private void onAttemptComplete(T value, Throwable error) {
+        if (result.isDone()) {
+            return;
+        }
+        if (error == null) {
+            result.complete(value);
+            return;
+        }
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        boolean retry;
+        synchronized (this) {
+            inFlight--;
+            lastError = cause;
+            retry = cause instanceof IOException;
+        }
+
+        if (!retry) {
+            result.completeExceptionally(cause);
+            return;
+        }
+
+        if (attempt() == null) {
+            Throwable failure;
+            synchronized (this) {
+                // a hedged attempt may still succeed
+                if (inFlight > 0) {
+                    return;
+                }
+                failure = lastError;
+            }
+            result.completeExceptionally(RpcClient.toRpcException(failure));
+        }
+    }
+}
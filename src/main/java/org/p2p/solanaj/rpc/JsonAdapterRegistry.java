@@ -0,0 +1,98 @@
+package org.p2p.solanaj.rpc;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import com.squareup.moshi.Types;
+
+import org.p2p.solanaj.rpc.types.AccountInfo;
+import org.p2p.solanaj.rpc.types.AccountInfoValueJsonAdapter;
+import org.p2p.solanaj.rpc.types.ProgramAccount;
+import org.p2p.solanaj.rpc.types.ProgramAccountJsonAdapter;
+import org.p2p.solanaj.rpc.types.RpcNotificationResult;
+import org.p2p.solanaj.rpc.types.RpcRequest;
+import org.p2p.solanaj.rpc.types.RpcResponse;
+
+/**
+ * Process-wide cache of Moshi {@link JsonAdapter}s used by the RPC and websocket clients.
+ *
+ * Building a {@link Moshi} instance and resolving a parameterized adapter is reflection heavy, so both are done
+ * once per result type and shared by every {@link RpcClient}. Moshi adapters are thread-safe.
+ */
+public final class JsonAdapterRegistry {
+
+    private static final Moshi MOSHI = new Moshi.Builder()
+            .add(ProgramAccount.class, new ProgramAccountJsonAdapter())
+            .add(AccountInfo.Value.class, new AccountInfoValueJsonAdapter())
+            .build();
+
+    private static final JsonAdapter<RpcRequest> RPC_REQUEST_ADAPTER = MOSHI.adapter(RpcRequest.class);
+
+    private static final JsonAdapter<List<RpcRequest>> BATCH_REQUEST_ADAPTER =
+            MOSHI.adapter(Types.newParameterizedType(List.class, RpcRequest.class));
+
+    private static final JsonAdapter<Object> RAW_ADAPTER = MOSHI.adapter(Object.class);
+
+    private static final JsonAdapter<RpcResponse.Error> ERROR_ADAPTER = MOSHI.adapter(RpcResponse.Error.class);
+
+    private static final JsonAdapter<ProgramAccount> PROGRAM_ACCOUNT_ADAPTER = MOSHI.adapter(ProgramAccount.class);
+
+    private static final JsonAdapter<RpcNotificationResult> NOTIFICATION_ADAPTER =
+            MOSHI.adapter(RpcNotificationResult.class);
+
+    private static final Map<Type, JsonAdapter<?>> RESPONSE_ADAPTERS = new ConcurrentHashMap<>();
+
+    private JsonAdapterRegistry() {
+    }
+
+    public static Moshi getMoshi() {
+        return MOSHI;
+    }
+
+    public static JsonAdapter<RpcRequest> getRequestAdapter() {
+        return RPC_REQUEST_ADAPTER;
+    }
+
+    public static JsonAdapter<List<RpcRequest>> getBatchRequestAdapter() {
+        return BATCH_REQUEST_ADAPTER;
+    }
+
+    /**
+     * Adapter decoding into plain Maps, Lists, Strings, Doubles and Booleans.
+     * @return untyped adapter
+     */
+    public static JsonAdapter<Object> getRawAdapter() {
+        return RAW_ADAPTER;
+    }
+
+    public static JsonAdapter<RpcResponse.Error> getErrorAdapter() {
+        return ERROR_ADAPTER;
+    }
+
+    /**
+     * Adapter decoding one element of a getProgramAccounts result.
+     * @return ProgramAccount adapter
+     */
+    public static JsonAdapter<ProgramAccount> getProgramAccountAdapter() {
+        return PROGRAM_ACCOUNT_ADAPTER;
+    }
+
+    public static JsonAdapter<RpcNotificationResult> getNotificationAdapter() {
+        return NOTIFICATION_ADAPTER;
+    }
+
+    /**
+     * Returns the cached adapter for {@code RpcResponse<resultType>}, creating it on first use.
+     * @param resultType type of the "result" field
+     * @return adapter for the wrapped response
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> JsonAdapter<RpcResponse<T>> getResponseAdapter(Type resultType) {
+        return (JsonAdapter<RpcResponse<T>>) RESPONSE_ADAPTERS.computeIfAbsent(resultType,
+                type -> MOSHI.adapter(Types.newParameterizedType(RpcResponse.class, type)));
+    }
+}
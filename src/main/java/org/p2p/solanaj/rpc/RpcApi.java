@@ -1,6 +1,8 @@
 package org.p2p.solanaj.rpc;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.p2p.solanaj.core.Account;
 import org.p2p.solanaj.core.PublicKey;
@@ -28,23 +30,60 @@ import org.p2p.solanaj.ws.listeners.NotificationEventListener;
 
 public class RpcApi {
     private RpcClient client;
+    private BlockhashProvider blockhashProvider;
 
     public RpcApi(RpcClient client) {
         this.client = client;
     }
 
+    /**
+     * Sends that are not given a blockhash take it from {@code blockhashProvider} instead of calling
+     * getRecentBlockhash first.
+     * @param blockhashProvider provider to use, or null to fetch a blockhash before every send
+     */
+    public void setBlockhashProvider(BlockhashProvider blockhashProvider) {
+        this.blockhashProvider = blockhashProvider;
+    }
+
+    public BlockhashProvider getBlockhashProvider() {
+        return blockhashProvider;
+    }
+
     public String getRecentBlockhash() throws RpcException {
         return getRecentBlockhash(null);
     }
 
     public String getRecentBlockhash(Commitment commitment) throws RpcException {
+        return getRecentBlockhashWithContext(commitment).getValue().getBlockhash();
+    }
+
+    public RecentBlockhash getRecentBlockhashWithContext(Commitment commitment) throws RpcException {
         List<Object> params = new ArrayList<>();
 
         if (null != commitment) {
             params.add(Map.of("commitment", commitment.getValue()));
         }
 
-        return client.call("getRecentBlockhash", params, RecentBlockhash.class).getValue().getBlockhash();
+        return client.call("getRecentBlockhash", params, RecentBlockhash.class);
+    }
+
+    public CompletableFuture<String> getRecentBlockhashAsync() {
+        return getRecentBlockhashAsync(null);
+    }
+
+    public CompletableFuture<String> getRecentBlockhashAsync(Commitment commitment) {
+        return getRecentBlockhashWithContextAsync(commitment)
+                .thenApply(recentBlockhash -> recentBlockhash.getValue().getBlockhash());
+    }
+
+    public CompletableFuture<RecentBlockhash> getRecentBlockhashWithContextAsync(Commitment commitment) {
+        List<Object> params = new ArrayList<>();
+
+        if (null != commitment) {
+            params.add(Map.of("commitment", commitment.getValue()));
+        }
+
+        return client.callAsync("getRecentBlockhash", params, RecentBlockhash.class);
     }
 
     public String sendTransaction(Transaction transaction, Account signer, String recentBlockHash) throws
@@ -59,8 +98,73 @@ public class RpcApi {
     public String sendTransaction(Transaction transaction, List<Account> signers, String recentBlockHash)
             throws RpcException {
         if (recentBlockHash == null) {
-            recentBlockHash = getRecentBlockhash();
+            recentBlockHash = blockhashProvider != null ? blockhashProvider.getBlockhash() : getRecentBlockhash();
+        }
+
+        try {
+            return client.call("sendTransaction", sendTransactionParams(transaction, signers, recentBlockHash),
+                    String.class);
+        } catch (RpcException e) {
+            invalidateBlockhashOnRejection(e);
+            throw e;
         }
+    }
+
+    /**
+     * Sends an already signed transaction in wire format, e.g. from
+     * {@link org.p2p.solanaj.core.MessageTemplate#signAndSerialize(List)}.
+     */
+    public String sendRawTransaction(byte[] serializedTransaction) throws RpcException {
+        List<Object> params = new ArrayList<Object>();
+
+        params.add(Base64.getEncoder().encodeToString(serializedTransaction));
+        params.add(new RpcSendTransactionConfig());
+
+        try {
+            return client.call("sendTransaction", params, String.class);
+        } catch (RpcException e) {
+            invalidateBlockhashOnRejection(e);
+            throw e;
+        }
+    }
+
+    public CompletableFuture<String> sendTransactionAsync(Transaction transaction, Account signer) {
+        return sendTransactionAsync(transaction, Collections.singletonList(signer), null);
+    }
+
+    /**
+     * Asynchronous variant of {@link #sendTransaction(Transaction, List, String)}. When no blockhash is given, it is
+     * taken from the {@link BlockhashProvider} or fetched with {@link #getRecentBlockhashAsync()}, without blocking,
+     * before the transaction is signed and sent.
+     */
+    public CompletableFuture<String> sendTransactionAsync(Transaction transaction, List<Account> signers,
+            String recentBlockHash) {
+        CompletableFuture<String> blockhash;
+        if (recentBlockHash != null) {
+            blockhash = CompletableFuture.completedFuture(recentBlockHash);
+        } else if (blockhashProvider != null) {
+            blockhash = blockhashProvider.getBlockhashAsync();
+        } else {
+            blockhash = getRecentBlockhashAsync();
+        }
+
+        return blockhash.thenCompose(hash -> client.callAsync("sendTransaction",
+                sendTransactionParams(transaction, signers, hash), String.class))
+                .whenComplete((signature, error) -> {
+                    if (error != null) {
+                        invalidateBlockhashOnRejection(RpcClient.toRpcException(error));
+                    }
+                });
+    }
+
+    private void invalidateBlockhashOnRejection(RpcException e) {
+        if (blockhashProvider != null && e.getMessage() != null && e.getMessage().contains("Blockhash not found")) {
+            blockhashProvider.invalidate();
+        }
+    }
+
+    private List<Object> sendTransactionParams(Transaction transaction, List<Account> signers,
+            String recentBlockHash) {
         transaction.setRecentBlockHash(recentBlockHash);
         transaction.sign(signers);
         byte[] serializedTransaction = transaction.serialize();
@@ -72,7 +176,7 @@ public class RpcApi {
         params.add(base64Trx);
         params.add(new RpcSendTransactionConfig());
 
-        return client.call("sendTransaction", params, String.class);
+        return params;
     }
 
     public void sendAndConfirmTransaction(Transaction transaction, List<Account> signers,
@@ -88,6 +192,40 @@ public class RpcApi {
     }
 
     public long getBalance(PublicKey account, Commitment commitment) throws RpcException {
+        return client.callReadOnly("getBalance", balanceParams(account, commitment), ValueLong.class).getValue();
+    }
+
+    public CompletableFuture<Long> getBalanceAsync(PublicKey account) {
+        return getBalanceAsync(account, null);
+    }
+
+    public CompletableFuture<Long> getBalanceAsync(PublicKey account, Commitment commitment) {
+        return client.callReadOnlyAsync("getBalance", balanceParams(account, commitment), ValueLong.class)
+                .thenApply(ValueLong::getValue);
+    }
+
+    /**
+     * Fetches the balances of all accounts with one JSON-RPC batch request.
+     * @return balances in the same order as {@code accounts}
+     */
+    public List<Long> getBalances(List<PublicKey> accounts, Commitment commitment) throws RpcException {
+        List<RpcRequest> requests = new ArrayList<>(accounts.size());
+        for (PublicKey account : accounts) {
+            requests.add(new RpcRequest("getBalance", balanceParams(account, commitment)));
+        }
+
+        List<Long> result = new ArrayList<>(accounts.size());
+        for (RpcResponse<ValueLong> response : client.callBatch(requests, ValueLong.class)) {
+            if (response.getError() != null) {
+                throw new RpcException(response.getError().getMessage());
+            }
+            result.add(response.getResult().getValue());
+        }
+
+        return result;
+    }
+
+    private List<Object> balanceParams(PublicKey account, Commitment commitment) {
         List<Object> params = new ArrayList<>();
 
         params.add(account.toString());
@@ -95,7 +233,7 @@ public class RpcApi {
             params.add(Map.of("commitment", commitment.getValue()));
         }
 
-        return client.call("getBalance", params, ValueLong.class).getValue();
+        return params;
     }
 
     public ConfirmedTransaction getConfirmedTransaction(String signature) throws RpcException {
@@ -139,9 +277,21 @@ public class RpcApi {
         return getProgramAccounts(account, new ProgramAccountConfig(Encoding.base64));
     }
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     public List<ProgramAccount> getProgramAccounts(PublicKey account, ProgramAccountConfig programAccountConfig)
             throws RpcException {
+        List<ProgramAccount> result = new ArrayList<ProgramAccount>();
+        getProgramAccounts(account, programAccountConfig, result::add);
+
+        return result;
+    }
+
+    /**
+     * Streams the program's accounts to {@code consumer} one at a time as they are decoded from the response,
+     * instead of building the full list. Use this for programs with very large account sets.
+     * @return number of accounts passed to {@code consumer}
+     */
+    public long getProgramAccounts(PublicKey account, ProgramAccountConfig programAccountConfig,
+            Consumer<ProgramAccount> consumer) throws RpcException {
         List<Object> params = new ArrayList<Object>();
 
         params.add(account.toString());
@@ -150,17 +300,10 @@ public class RpcApi {
             params.add(programAccountConfig);
         }
 
-        List<AbstractMap> rawResult = client.call("getProgramAccounts", params, List.class);
-
-        List<ProgramAccount> result = new ArrayList<ProgramAccount>();
-        for (AbstractMap item : rawResult) {
-            result.add(new ProgramAccount(item));
-        }
-
-        return result;
+        return client.callForEach("getProgramAccounts", params, JsonAdapterRegistry.getProgramAccountAdapter(),
+                consumer);
     }
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     public List<ProgramAccount> getProgramAccounts(PublicKey account, List<Memcmp> memcmpList, int dataSize)
             throws RpcException {
         List<Object> params = new ArrayList<>();
@@ -177,17 +320,12 @@ public class RpcApi {
         ProgramAccountConfig programAccountConfig = new ProgramAccountConfig(filters);
         params.add(programAccountConfig);
 
-        List<AbstractMap> rawResult = client.call("getProgramAccounts", params, List.class);
-
         List<ProgramAccount> result = new ArrayList<>();
-        for (AbstractMap item : rawResult) {
-            result.add(new ProgramAccount(item));
-        }
+        client.callForEach("getProgramAccounts", params, JsonAdapterRegistry.getProgramAccountAdapter(), result::add);
 
         return result;
     }
 
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     public List<ProgramAccount> getProgramAccounts(PublicKey account, List<Memcmp> memcmpList) throws RpcException {
         List<Object> params = new ArrayList<>();
 
@@ -201,12 +339,8 @@ public class RpcApi {
         ProgramAccountConfig programAccountConfig = new ProgramAccountConfig(filters);
         params.add(programAccountConfig);
 
-        List<AbstractMap> rawResult = client.call("getProgramAccounts", params, List.class);
-
         List<ProgramAccount> result = new ArrayList<>();
-        for (AbstractMap item : rawResult) {
-            result.add(new ProgramAccount(item));
-        }
+        client.callForEach("getProgramAccounts", params, JsonAdapterRegistry.getProgramAccountAdapter(), result::add);
 
         return result;
     }
@@ -216,6 +350,21 @@ public class RpcApi {
     }
 
     public AccountInfo getAccountInfo(PublicKey account, Map<String, Object> additionalParams) throws RpcException {
+        return client.callReadOnly("getAccountInfo", accountInfoParams(account, additionalParams),
+                AccountInfo.class);
+    }
+
+    public CompletableFuture<AccountInfo> getAccountInfoAsync(PublicKey account) {
+        return getAccountInfoAsync(account, new HashMap<>());
+    }
+
+    public CompletableFuture<AccountInfo> getAccountInfoAsync(PublicKey account,
+            Map<String, Object> additionalParams) {
+        return client.callReadOnlyAsync("getAccountInfo", accountInfoParams(account, additionalParams),
+                AccountInfo.class);
+    }
+
+    private List<Object> accountInfoParams(PublicKey account, Map<String, Object> additionalParams) {
         List<Object> params = new ArrayList<>();
 
         Map<String, Object> parameterMap = new HashMap<>();
@@ -233,7 +382,7 @@ public class RpcApi {
         params.add(account.toString());
         params.add(parameterMap);
 
-        return client.call("getAccountInfo", params, AccountInfo.class);
+        return params;
     }
 
     public SplTokenAccountInfo getSplTokenAccountInfo(PublicKey account) throws RpcException {
@@ -814,7 +963,7 @@ public class RpcApi {
         params.add(signatures);
         params.add(new SignatureStatusConfig(searchTransactionHistory));
 
-        return client.call("getSignatureStatuses", params, SignatureStatuses.class);
+        return client.callReadOnly("getSignatureStatuses", params, SignatureStatuses.class);
     }
 
     public List<PerformanceSample> getRecentPerformanceSamples() throws RpcException {
@@ -929,12 +1078,12 @@ public class RpcApi {
 
         params.add(parameterMap);
 
-        Map<String, Object> rawResult = client.call("getMultipleAccounts", params, Map.class);
+        MultipleAccounts rawResult = client.callReadOnly("getMultipleAccounts", params, MultipleAccounts.class);
         List<AccountInfo.Value> result = new ArrayList<>();
 
-        for (AbstractMap item : (List<AbstractMap>) rawResult.get("value")) {
+        for (AccountInfo.Value item : rawResult.getValue()) {
             if (item != null) {
-                result.add(new AccountInfo.Value(item));
+                result.add(item);
             }
         }
 
@@ -0,0 +1,173 @@
+package org.p2p.solanaj.rpc;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.squareup.moshi.JsonAdapter;
+
+import org.p2p.solanaj.rpc.types.RpcRequest;
+import org.p2p.solanaj.rpc.types.RpcResponse;
+
+/**
+ * Coalesces RPC calls issued within a short window into a single JSON-RPC batch request.
+ *
+ * The first call after a flush starts the window; every call made before it closes joins the same batch. A batch is
+ * sent early once it reaches {@code maxBatchSize}. Each caller gets its own future, completed with its own result
+ * or with an {@link RpcException} if its request (or the whole batch) failed.
+ */
+public class RpcBatcher implements Closeable {
+
+    private static final long DEFAULT_WINDOW_MILLIS = 5;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    private class PendingCall<T> {
+        final RpcRequest request;
+        final Class<T> clazz;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+
+        PendingCall(RpcRequest request, Class<T> clazz) {
+            this.request = request;
+            this.clazz = clazz;
+        }
+
+        void complete(Object rawResponse) {
+            if (rawResponse == null) {
+                future.completeExceptionally(new RpcException("missing response for request " + request.getId()));
+                return;
+            }
+
+            try {
+                JsonAdapter<RpcResponse<T>> resultAdapter = JsonAdapterRegistry.getResponseAdapter(clazz);
+                RpcResponse<T> rpcResult = resultAdapter.fromJsonValue(rawResponse);
+
+                if (rpcResult.getError() != null) {
+                    future.completeExceptionally(new RpcException(rpcResult.getError().getMessage()));
+                } else {
+                    future.complete(rpcResult.getResult());
+                }
+            } catch (RuntimeException e) {
+                future.completeExceptionally(new RpcException(e.getMessage()));
+            }
+        }
+    }
+
+    private final RpcClient client;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "solanaj-rpc-batcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private List<PendingCall<?>> pending = new ArrayList<>();
+    // window flush of the current batch, cancelled when the batch is sent some other way
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean closed;
+
+    public RpcBatcher(RpcClient client) {
+        this(client, DEFAULT_WINDOW_MILLIS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public RpcBatcher(RpcClient client, long windowMillis, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.client = client;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Queues a call for the current batch window.
+     * @param method RPC method name
+     * @param params RPC method params
+     * @param clazz result type
+     * @return future completed with the RPC result once the batch is answered, or failed with an
+     *         {@link RpcException} if the batcher is closed
+     */
+    public <T> CompletableFuture<T> call(String method, List<Object> params, Class<T> clazz) {
+        PendingCall<T> call = new PendingCall<>(new RpcRequest(method, params), clazz);
+        List<PendingCall<?>> ready = null;
+
+        synchronized (this) {
+            if (closed) {
+                call.future.completeExceptionally(new RpcException("RpcBatcher is closed"));
+                return call.future;
+            }
+            pending.add(call);
+            if (pending.size() >= maxBatchSize) {
+                ready = takePending();
+            } else if (pending.size() == 1) {
+                scheduledFlush = scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (ready != null) {
+            send(ready);
+        }
+
+        return call.future;
+    }
+
+    /**
+     * Sends whatever is queued right away instead of waiting for the window to close.
+     */
+    public void flush() {
+        List<PendingCall<?>> ready;
+        synchronized (this) {
+            ready = takePending();
+        }
+
+        if (!ready.isEmpty()) {
+            send(ready);
+        }
+    }
+
+    /**
+     * Sends what is queued and stops batching. Calls made afterwards fail.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        flush();
+        scheduler.shutdown();
+    }
+
+    // callers hold the lock
+    private List<PendingCall<?>> takePending() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        List<PendingCall<?>> ready = pending;
+        pending = new ArrayList<>();
+        return ready;
+    }
+
+    private void send(List<PendingCall<?>> calls) {
+        List<RpcRequest> requests = new ArrayList<>(calls.size());
+        for (PendingCall<?> call : calls) {
+            requests.add(call.request);
+        }
+
+        client.callBatchRawAsync(requests).whenComplete((Map<String, Object> rawResponses, Throwable error) -> {
+            for (PendingCall<?> call : calls) {
+                if (error != null) {
+                    call.future.completeExceptionally(error);
+                } else {
+                    call.complete(rawResponses.get(call.request.getId()));
+                }
+            }
+        });
+    }
+}
@@ -1,35 +1,47 @@
 package org.p2p.solanaj.rpc;
 
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 import com.squareup.moshi.JsonAdapter;
-import com.squareup.moshi.Moshi;
-import com.squareup.moshi.Types;
+import com.squareup.moshi.JsonReader;
 
 import org.p2p.solanaj.rpc.types.RpcRequest;
 import org.p2p.solanaj.rpc.types.RpcResponse;
-import org.p2p.solanaj.rpc.types.WeightedEndpoint;
+import org.p2p.solanaj.rpc.types.RpcResultObject;
 
 import javax.net.ssl.*;
 
 public class RpcClient {
     private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
     private String endpoint;
-    private OkHttpClient httpClient;
+    private final OkHttpClient httpClient;
     private RpcApi rpcApi;
     private WeightedCluster cluster;
+    private ClusterLoadBalancer loadBalancer;
+    private int maxAttempts = 1;
+    private boolean hedging;
 
     public RpcClient(WeightedCluster cluster) {
-        this.cluster = cluster;
+        this(null, cluster, new RpcClientBuilder(cluster).buildHttpClient());
     }
 
     public RpcClient(Cluster endpoint) {
@@ -37,73 +49,395 @@ public class RpcClient {
     }
 
     public RpcClient(String endpoint) {
+        this(endpoint, null, new RpcClientBuilder(endpoint).buildHttpClient());
+    }
+
+    /**
+     * @see RpcClientBuilder
+     */
+    RpcClient(String endpoint, WeightedCluster cluster, OkHttpClient httpClient) {
         this.endpoint = endpoint;
-        this.httpClient = new OkHttpClient.Builder()
-                .readTimeout(20, TimeUnit.SECONDS)
-                //.addInterceptor(new LoggingInterceptor())
-                .build();
+        this.cluster = cluster;
+        if (cluster != null) {
+            this.loadBalancer = new ClusterLoadBalancer(cluster);
+            httpClient = httpClient.newBuilder().addInterceptor(loadBalancer).build();
+        }
+        this.httpClient = httpClient;
         rpcApi = new RpcApi(this);
     }
 
     public <T> T call(String method, List<Object> params, Class<T> clazz) throws RpcException {
-        RpcRequest rpcRequest = new RpcRequest(method, params);
+        Request request = buildRequest(method, params);
+
+        try {
+            Response response = httpClient.newCall(request).execute();
+            return parseResponse(response, clazz);
+        } catch (SSLHandshakeException e) {
+            resetHttpClient();
+            throw new RpcException(e.getMessage());
+        } catch (IOException e) {
+            throw new RpcException(e.getMessage());
+        }
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #call(String, List, Class)}. The request is enqueued on OkHttp's dispatcher
+     * and the returned future is completed from its callback thread, either with the result or exceptionally with an
+     * {@link RpcException}.
+     * @param method RPC method name
+     * @param params RPC method params
+     * @param clazz result type
+     * @return future completed with the RPC result
+     */
+    public <T> CompletableFuture<T> callAsync(String method, List<Object> params, Class<T> clazz) {
+        CompletableFuture<T> future = new CompletableFuture<>();
 
-        JsonAdapter<RpcRequest> rpcRequestJsonAdapter = new Moshi.Builder().build().adapter(RpcRequest.class);
-        JsonAdapter<RpcResponse<T>> resultAdapter = new Moshi.Builder().build()
-                .adapter(Types.newParameterizedType(RpcResponse.class, Type.class.cast(clazz)));
+        executeAsync(getEndpoint(), method, params, clazz).whenComplete((result, error) -> {
+            if (error == null) {
+                future.complete(result);
+            } else {
+                future.completeExceptionally(toRpcException(error));
+            }
+        });
 
-        Request request = new Request.Builder().url(getEndpoint())
-                .post(RequestBody.create(rpcRequestJsonAdapter.toJson(rpcRequest), JSON)).build();
+        return future;
+    }
+
+    /**
+     * Calls a read-only method. With a {@link WeightedCluster}, transport failures are retried on other endpoints
+     * and, if enabled, a hedged request is sent to a second endpoint when the first is slower than usual; see
+     * {@link RpcClientBuilder#failover(int, boolean)}. Without a cluster this is the same as
+     * {@link #call(String, List, Class)}.
+     *
+     * Only use this for methods that are safe to send more than once. The wait is bounded by the http client's call
+     * timeout, or else its connect, write and read timeouts, once per attempt.
+     */
+    public <T> T callReadOnly(String method, List<Object> params, Class<T> clazz) throws RpcException {
+        if (loadBalancer == null) {
+            return call(method, params, clazz);
+        }
+
+        CompletableFuture<T> future = callReadOnlyAsync(method, params, clazz);
+        long attemptTimeout = httpClient.callTimeoutMillis() > 0 ? httpClient.callTimeoutMillis()
+                : httpClient.connectTimeoutMillis() + httpClient.writeTimeoutMillis() + httpClient.readTimeoutMillis();
+        try {
+            if (attemptTimeout == 0) {
+                // every timeout disabled on purpose
+                return future.get();
+            }
+            return future.get(attemptTimeout * Math.max(1, maxAttempts), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw toRpcException(e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new RpcException("Timed out waiting for " + method);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new RpcException(e.getMessage());
+        }
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #callReadOnly(String, List, Class)}.
+     */
+    public <T> CompletableFuture<T> callReadOnlyAsync(String method, List<Object> params, Class<T> clazz) {
+        if (loadBalancer == null) {
+            return callAsync(method, params, clazz);
+        }
+
+        return new FailoverCall<>(this, loadBalancer, maxAttempts, hedging, method, params, clazz).start();
+    }
+
+    /**
+     * Sends one request to {@code url}. Transport failures, including non-2xx HTTP statuses, complete the future
+     * with the raw {@link IOException}; error responses from the node complete it with an {@link RpcException}.
+     * Cancelling the future cancels the HTTP call.
+     */
+    <T> CompletableFuture<T> executeAsync(String url, String method, List<Object> params, Class<T> clazz) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Request request = buildRequest(url, method, params);
+
+        Call httpCall = httpClient.newCall(request);
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                httpCall.cancel();
+            }
+        });
+        httpCall.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                if (e instanceof SSLHandshakeException) {
+                    resetHttpClient();
+                }
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try {
+                    if (!response.isSuccessful()) {
+                        response.close();
+                        throw new IOException("HTTP " + response.code() + " from " + url);
+                    }
+                    future.complete(parseResponse(response, clazz));
+                } catch (RpcException | IOException e) {
+                    future.completeExceptionally(e);
+                } catch (RuntimeException e) {
+                    // e.g. a JsonDataException for a result of the wrong type; the future must complete either way
+                    future.completeExceptionally(new RpcException("Invalid response from " + url + ": " + e));
+                }
+            }
+        });
+
+        return future;
+    }
+
+    static RpcException toRpcException(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error instanceof RpcException ? (RpcException) error : new RpcException(error.getMessage());
+    }
+
+    /**
+     * Calls a method whose result is a JSON array and hands each element to {@code consumer} as soon as it is
+     * decoded, so neither the raw response nor the full list of results is ever held in memory.
+     * @param method RPC method name
+     * @param params RPC method params
+     * @param itemAdapter adapter for a single element of the result array
+     * @param consumer receives each decoded element, on the calling thread
+     * @return number of elements passed to {@code consumer}
+     * @throws RpcException if the request fails or the node returns an error
+     */
+    public <T> long callForEach(String method, List<Object> params, JsonAdapter<T> itemAdapter,
+            Consumer<? super T> consumer) throws RpcException {
+        Request request = buildRequest(method, params);
+
+        try (Response response = httpClient.newCall(request).execute();
+                JsonReader reader = JsonReader.of(response.body().source())) {
+            RpcResponse.Error error = null;
+            long count = 0;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "result":
+                        if (reader.peek() == JsonReader.Token.NULL) {
+                            reader.nextNull();
+                            break;
+                        }
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            consumer.accept(itemAdapter.fromJson(reader));
+                            count++;
+                        }
+                        reader.endArray();
+                        break;
+                    case "error":
+                        error = JsonAdapterRegistry.getErrorAdapter().fromJson(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (error != null) {
+                throw new RpcException(error.getMessage());
+            }
+
+            return count;
+        } catch (SSLHandshakeException e) {
+            resetHttpClient();
+            throw new RpcException(e.getMessage());
+        } catch (IOException e) {
+            throw new RpcException(e.getMessage());
+        }
+    }
+
+    /**
+     * Sends all requests as a single JSON-RPC batch in one HTTP POST. Responses are matched to their request by id
+     * and returned in request order; per-request errors are left in {@link RpcResponse#getError()} rather than
+     * thrown, so one failing request does not discard the rest of the batch.
+     * @param requests requests to send, all returning {@code clazz}
+     * @param clazz result type
+     * @return responses in the same order as {@code requests}
+     * @throws RpcException if the batch as a whole fails
+     */
+    public <T> List<RpcResponse<T>> callBatch(List<RpcRequest> requests, Class<T> clazz) throws RpcException {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Request request = buildBatchRequest(requests);
 
         try {
             Response response = httpClient.newCall(request).execute();
-            final String result = response.body().string();
-            // System.out.println("Response = " + result);
-            RpcResponse<T> rpcResult = resultAdapter.fromJson(result);
+            Map<String, Object> rawResponses = parseBatchResponse(response);
 
-            if (rpcResult.getError() != null) {
-                throw new RpcException(rpcResult.getError().getMessage());
+            JsonAdapter<RpcResponse<T>> resultAdapter = JsonAdapterRegistry.getResponseAdapter(clazz);
+            List<RpcResponse<T>> result = new ArrayList<>(requests.size());
+            for (RpcRequest rpcRequest : requests) {
+                Object rawResponse = rawResponses.get(rpcRequest.getId());
+                if (rawResponse == null) {
+                    throw new RpcException("missing response for request " + rpcRequest.getId());
+                }
+                result.add(resultAdapter.fromJsonValue(rawResponse));
             }
 
-            return (T) rpcResult.getResult();
+            return result;
         } catch (SSLHandshakeException e) {
-            this.httpClient = new OkHttpClient.Builder().build();
+            resetHttpClient();
             throw new RpcException(e.getMessage());
         } catch (IOException e) {
             throw new RpcException(e.getMessage());
         }
     }
 
+    /**
+     * Sends a JSON-RPC batch without blocking and completes with the undecoded responses keyed by request id.
+     * Used by {@link RpcBatcher}, which decodes each response into its caller's result type.
+     */
+    CompletableFuture<Map<String, Object>> callBatchRawAsync(List<RpcRequest> requests) {
+        CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
+        if (requests.isEmpty()) {
+            future.complete(new HashMap<>());
+            return future;
+        }
+        Request request = buildBatchRequest(requests);
+
+        httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                if (e instanceof SSLHandshakeException) {
+                    resetHttpClient();
+                }
+                future.completeExceptionally(new RpcException(e.getMessage()));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try {
+                    future.complete(parseBatchResponse(response));
+                } catch (RpcException e) {
+                    future.completeExceptionally(e);
+                } catch (IOException | RuntimeException e) {
+                    future.completeExceptionally(new RpcException(e.getMessage()));
+                }
+            }
+        });
+
+        return future;
+    }
+
+    private Request buildBatchRequest(List<RpcRequest> requests) {
+        JsonAdapter<List<RpcRequest>> batchRequestAdapter = JsonAdapterRegistry.getBatchRequestAdapter();
+
+        return new Request.Builder().url(getEndpoint())
+                .post(RequestBody.create(batchRequestAdapter.toJson(requests), JSON)).build();
+    }
+
+    @SuppressWarnings({ "rawtypes" })
+    private Map<String, Object> parseBatchResponse(Response response) throws IOException, RpcException {
+        Object rawResult;
+        try (ResponseBody body = response.body()) {
+            rawResult = JsonAdapterRegistry.getRawAdapter().fromJson(body.source());
+        }
+
+        // A malformed batch is answered with a single error object instead of an array
+        if (!(rawResult instanceof List)) {
+            Object error = rawResult instanceof Map ? ((Map) rawResult).get("error") : null;
+            Object message = error instanceof Map ? ((Map) error).get("message") : null;
+            throw new RpcException(message != null ? message.toString() : "unexpected batch response");
+        }
+
+        Map<String, Object> rawResponses = new HashMap<>();
+        for (Object item : (List) rawResult) {
+            if (item instanceof Map) {
+                Object id = ((Map) item).get("id");
+                if (id != null) {
+                    rawResponses.put(id.toString(), item);
+                }
+            }
+        }
+
+        return rawResponses;
+    }
+
+    private Request buildRequest(String method, List<Object> params) {
+        return buildRequest(getEndpoint(), method, params);
+    }
+
+    private Request buildRequest(String url, String method, List<Object> params) {
+        RpcRequest rpcRequest = new RpcRequest(method, params);
+        JsonAdapter<RpcRequest> rpcRequestJsonAdapter = JsonAdapterRegistry.getRequestAdapter();
+
+        return new Request.Builder().url(url)
+                .post(RequestBody.create(rpcRequestJsonAdapter.toJson(rpcRequest), JSON)).build();
+    }
+
+    private <T> T parseResponse(Response response, Class<T> clazz) throws IOException, RpcException {
+        JsonAdapter<RpcResponse<T>> resultAdapter = JsonAdapterRegistry.getResponseAdapter(clazz);
+
+        RpcResponse<T> rpcResult;
+        try (ResponseBody body = response.body()) {
+            // decode straight from the socket rather than buffering the whole body as a String first
+            rpcResult = resultAdapter.fromJson(body.source());
+        }
+
+        if (rpcResult.getError() != null) {
+            throw new RpcException(rpcResult.getError().getMessage());
+        }
+
+        if (loadBalancer != null && rpcResult.getResult() instanceof RpcResultObject) {
+            RpcResultObject.Context context = ((RpcResultObject) rpcResult.getResult()).getContext();
+            if (context != null) {
+                loadBalancer.recordSlot(response.request().url().toString(), context.getSlot());
+            }
+        }
+
+        return (T) rpcResult.getResult();
+    }
+
+    /**
+     * Recovers from a failed TLS handshake by closing the idle pooled connections, so the next calls handshake
+     * afresh. A pool shared through {@link RpcClientBuilder#connectionPool(okhttp3.ConnectionPool)} is evicted for
+     * every client using it.
+     */
+    private void resetHttpClient() {
+        httpClient.connectionPool().evictAll();
+    }
+
+    void setFailover(int maxAttempts, boolean hedging) {
+        this.maxAttempts = maxAttempts;
+        this.hedging = hedging;
+    }
+
+    public OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
     public RpcApi getApi() {
         return rpcApi;
     }
 
+    /**
+     * Returns the endpoint for the next request. For a {@link WeightedCluster} this is the healthiest of two
+     * weighted random picks, see {@link ClusterLoadBalancer}.
+     * @return String RPCEndpoint
+     */
     public String getEndpoint() {
-        if (cluster != null) {
-            return getWeightedEndpoint();
+        if (loadBalancer != null) {
+            return loadBalancer.select().getUrl();
         }
         return endpoint;
     }
 
     /**
-     * Returns RPC Endpoint based on a list of weighted endpoints
-     * Weighted endpoints can be given a integer weight, with higher weights used more than lower weights
-     * Total weights across all endpoints do not need to sum up to any specific number
-     * @return String RPCEndpoint
+     * @return the load balancer tracking endpoint health, or null when not using a {@link WeightedCluster}
      */
-    private String getWeightedEndpoint() {
-        int currentNumber = 0;
-        int randomMultiplier = cluster.endpoints.stream().mapToInt(WeightedEndpoint::getWeight).sum();
-        double randomNumber = Math.random() * randomMultiplier;
-        String currentEndpoint = "";
-        for (WeightedEndpoint endpoint: cluster.endpoints) {
-            if (randomNumber > currentNumber + endpoint.getWeight()) {
-                currentNumber += endpoint.getWeight();
-            } else if (randomNumber >= currentNumber && randomNumber <= currentNumber + endpoint.getWeight()) {
-                return endpoint.getUrl();
-            }
-        }
-        return currentEndpoint;
+    public ClusterLoadBalancer getLoadBalancer() {
+        return loadBalancer;
     }
 
 }
@@ -0,0 +1,202 @@
+package org.p2p.solanaj.rpc;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Builder for {@link RpcClient} exposing the underlying OkHttp connection settings.
+ *
+ * Clients built with the same {@link ConnectionPool} (or the same base {@link OkHttpClient}) share warm connections
+ * to the RPC node, which saves a TCP and TLS handshake per new client.
+ */
+public class RpcClientBuilder {
+
+    private static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(20);
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    private static final Duration DEFAULT_KEEP_ALIVE = Duration.ofMinutes(5);
+    private static final int DEFAULT_MAX_REQUESTS = 64;
+    private static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
+
+    private final String endpoint;
+    private final WeightedCluster cluster;
+
+    private OkHttpClient baseClient;
+    private ConnectionPool connectionPool;
+    // null until set; unset settings take the base client's value, or the defaults above without one
+    private Integer maxIdleConnections;
+    private Duration keepAlive;
+    private Integer maxRequests;
+    private Integer maxRequestsPerHost;
+    private Boolean preferHttp2;
+    private Duration connectTimeout;
+    private Duration readTimeout;
+    private Duration writeTimeout;
+    private Duration callTimeout;
+    private int failoverAttempts = 1;
+    private boolean hedging;
+
+    public RpcClientBuilder(String endpoint) {
+        this.endpoint = endpoint;
+        this.cluster = null;
+    }
+
+    public RpcClientBuilder(Cluster endpoint) {
+        this(endpoint.getEndpoint());
+    }
+
+    public RpcClientBuilder(WeightedCluster cluster) {
+        this.endpoint = null;
+        this.cluster = cluster;
+    }
+
+    /**
+     * Starts from an existing client, inheriting its pool, dispatcher, interceptors, protocols and timeouts. Only the
+     * settings explicitly made on this builder are applied on top. Setting {@link #maxIdleConnections(int)} or
+     * {@link #keepAlive(Duration)} gives the client its own pool, and {@link #maxRequests(int)} or
+     * {@link #maxRequestsPerHost(int)} its own dispatcher on the base dispatcher's executor.
+     */
+    public RpcClientBuilder httpClient(OkHttpClient baseClient) {
+        this.baseClient = baseClient;
+        return this;
+    }
+
+    /**
+     * Uses a pool shared with other clients. Takes precedence over {@link #maxIdleConnections(int)} and
+     * {@link #keepAlive(Duration)}.
+     */
+    public RpcClientBuilder connectionPool(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+        return this;
+    }
+
+    public RpcClientBuilder maxIdleConnections(int maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+        return this;
+    }
+
+    public RpcClientBuilder keepAlive(Duration keepAlive) {
+        this.keepAlive = keepAlive;
+        return this;
+    }
+
+    public RpcClientBuilder maxRequests(int maxRequests) {
+        this.maxRequests = maxRequests;
+        return this;
+    }
+
+    /**
+     * Limits concurrent asynchronous calls per host. Over HTTP/2 these are multiplexed over a single connection.
+     */
+    public RpcClientBuilder maxRequestsPerHost(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        return this;
+    }
+
+    /**
+     * When true (the default) HTTP/2 is negotiated via ALPN where the node supports it, so concurrent calls share
+     * one connection. When false only HTTP/1.1 is used.
+     */
+    public RpcClientBuilder preferHttp2(boolean preferHttp2) {
+        this.preferHttp2 = preferHttp2;
+        return this;
+    }
+
+    public RpcClientBuilder connectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    public RpcClientBuilder readTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+        return this;
+    }
+
+    public RpcClientBuilder writeTimeout(Duration writeTimeout) {
+        this.writeTimeout = writeTimeout;
+        return this;
+    }
+
+    /**
+     * Limits a whole call, including DNS, connecting, writing the request and reading the response.
+     */
+    public RpcClientBuilder callTimeout(Duration callTimeout) {
+        this.callTimeout = callTimeout;
+        return this;
+    }
+
+    /**
+     * Read-only calls made through {@link RpcClient#callReadOnly(String, List, Class)} are retried on other cluster
+     * endpoints after a transport failure. Only applies to clients built from a {@link WeightedCluster}.
+     * @param maxAttempts total attempts per call, including the first
+     * @param hedging also send a second request to another endpoint when the first is slower than its p95
+     */
+    public RpcClientBuilder failover(int maxAttempts, boolean hedging) {
+        this.failoverAttempts = maxAttempts;
+        this.hedging = hedging;
+        return this;
+    }
+
+    public RpcClient build() {
+        RpcClient client = new RpcClient(endpoint, cluster, buildHttpClient());
+        client.setFailover(failoverAttempts, hedging);
+        return client;
+    }
+
+    OkHttpClient buildHttpClient() {
+        OkHttpClient.Builder builder = baseClient != null ? baseClient.newBuilder() : new OkHttpClient.Builder();
+
+        if (connectionPool != null) {
+            builder.connectionPool(connectionPool);
+        } else if (baseClient == null || maxIdleConnections != null || keepAlive != null) {
+            builder.connectionPool(new ConnectionPool(
+                    maxIdleConnections != null ? maxIdleConnections : DEFAULT_MAX_IDLE_CONNECTIONS,
+                    (keepAlive != null ? keepAlive : DEFAULT_KEEP_ALIVE).toMillis(), TimeUnit.MILLISECONDS));
+        }
+
+        if (baseClient == null) {
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests(maxRequests != null ? maxRequests : DEFAULT_MAX_REQUESTS);
+            dispatcher.setMaxRequestsPerHost(
+                    maxRequestsPerHost != null ? maxRequestsPerHost : DEFAULT_MAX_REQUESTS_PER_HOST);
+            builder.dispatcher(dispatcher);
+        } else if (maxRequests != null || maxRequestsPerHost != null) {
+            Dispatcher base = baseClient.dispatcher();
+            Dispatcher dispatcher = new Dispatcher(base.executorService());
+            dispatcher.setMaxRequests(maxRequests != null ? maxRequests : base.getMaxRequests());
+            dispatcher.setMaxRequestsPerHost(
+                    maxRequestsPerHost != null ? maxRequestsPerHost : base.getMaxRequestsPerHost());
+            builder.dispatcher(dispatcher);
+        }
+
+        if (baseClient == null || preferHttp2 != null) {
+            builder.protocols(preferHttp2 == null || preferHttp2
+                    ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                    : Collections.singletonList(Protocol.HTTP_1_1));
+        }
+
+        if (connectTimeout != null) {
+            builder.connectTimeout(connectTimeout);
+        }
+        if (readTimeout != null) {
+            builder.readTimeout(readTimeout);
+        } else if (baseClient == null) {
+            builder.readTimeout(DEFAULT_READ_TIMEOUT);
+        }
+        if (writeTimeout != null) {
+            builder.writeTimeout(writeTimeout);
+        }
+        if (callTimeout != null) {
+            builder.callTimeout(callTimeout);
+        }
+
+        return builder.build();
+    }
+}
@@ -15,12 +15,20 @@ public class AccountInfo extends RpcResultObject {
     @ToString
     public static class Value {
 
+        public Value(List<String> data, boolean executable, long lamports, String owner, long rentEpoch) {
+            this.data = data;
+            this.executable = executable;
+            this.lamports = lamports;
+            this.owner = owner;
+            this.rentEpoch = rentEpoch;
+        }
+
         public Value(AbstractMap am) {
             this.data = (List) am.get("data");
             this.executable = (boolean) am.get("executable");
-            this.lamports = (long) (double) am.get("lamports");
+            this.lamports = AccountInfoValueJsonAdapter.toU64(((Number) am.get("lamports")).doubleValue());
             this.owner = (String) am.get("owner");
-            this.rentEpoch = (long) (double) am.get("rentEpoch");
+            this.rentEpoch = AccountInfoValueJsonAdapter.toU64(((Number) am.get("rentEpoch")).doubleValue());
         }
 
         @Json(name = "data")
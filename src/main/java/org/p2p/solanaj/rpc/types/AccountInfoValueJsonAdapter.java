@@ -0,0 +1,145 @@
+package org.p2p.solanaj.rpc.types;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonDataException;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+
+/**
+ * Streaming adapter decoding an account object straight into {@link AccountInfo.Value}, with lamports and rent
+ * epoch read as integers rather than through an intermediate map of doubles.
+ */
+public class AccountInfoValueJsonAdapter extends JsonAdapter<AccountInfo.Value> {
+
+    private static final JsonReader.Options NAMES = JsonReader.Options.of("data", "executable", "lamports", "owner",
+            "rentEpoch");
+    private static final double TWO_TO_THE_64 = 0x1p64;
+
+    @Override
+    public AccountInfo.Value fromJson(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonReader.Token.NULL) {
+            return reader.nextNull();
+        }
+
+        List<String> data = null;
+        boolean executable = false;
+        long lamports = 0;
+        String owner = null;
+        long rentEpoch = 0;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(NAMES)) {
+                case 0:
+                    data = readData(reader);
+                    break;
+                case 1:
+                    executable = reader.nextBoolean();
+                    break;
+                case 2:
+                    lamports = readU64(reader);
+                    break;
+                case 3:
+                    owner = reader.nextString();
+                    break;
+                case 4:
+                    rentEpoch = readU64(reader);
+                    break;
+                default:
+                    reader.skipName();
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new AccountInfo.Value(data, executable, lamports, owner, rentEpoch);
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, AccountInfo.Value value) throws IOException {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+
+        writer.beginObject();
+        writer.name("data");
+        if (value.getData() == null) {
+            writer.nullValue();
+        } else {
+            writer.beginArray();
+            for (String item : value.getData()) {
+                writer.value(item);
+            }
+            writer.endArray();
+        }
+        writer.name("executable").value(value.isExecutable());
+        writer.name("lamports").value(value.getLamports());
+        writer.name("owner").value(value.getOwner());
+        writer.name("rentEpoch").value(value.getRentEpoch());
+        writer.endObject();
+    }
+
+    private static List<String> readData(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_ARRAY:
+                List<String> data = new ArrayList<>(2);
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    data.add(reader.nextString());
+                }
+                reader.endArray();
+                return data;
+            case STRING:
+                return Collections.singletonList(reader.nextString());
+            default:
+                // jsonParsed data is an object; it is not representable here
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    /**
+     * Reads an unsigned 64-bit integer. Rent-exempt accounts report a rent epoch of u64::MAX, which does not fit a
+     * signed long and is returned as -1; values above {@link Long#MAX_VALUE} wrap the same way.
+     *
+     * Values replayed from a decoded tree (e.g. a batch response) arrive as doubles, so anything above 2^53 has
+     * already lost precision there. A double of 2^64 is how u64::MAX rounds and is read as -1.
+     */
+    public static long readU64(JsonReader reader) throws IOException {
+        String value = reader.nextString();
+        try {
+            return Long.parseUnsignedLong(value);
+        } catch (NumberFormatException e) {
+            double number;
+            try {
+                number = Double.parseDouble(value);
+            } catch (NumberFormatException notNumber) {
+                number = Double.NaN;
+            }
+            try {
+                return toU64(number);
+            } catch (IllegalArgumentException notU64) {
+                throw new JsonDataException("Expected an unsigned 64-bit integer but was " + value + " at path "
+                        + reader.getPath());
+            }
+        }
+    }
+
+    /**
+     * Converts a u64 decoded as a double, the way {@link #readU64(JsonReader)} does.
+     * @throws IllegalArgumentException if {@code number} is not an integer in the u64 range
+     */
+    static long toU64(double number) {
+        if (!(number >= 0 && number <= TWO_TO_THE_64) || number != Math.rint(number)) {
+            throw new IllegalArgumentException("Not an unsigned 64-bit integer: " + number);
+        }
+        return number == TWO_TO_THE_64 ? -1 : new BigDecimal(number).toBigInteger().longValue();
+    }
+}
@@ -0,0 +1,16 @@
+package org.p2p.solanaj.rpc.types;
+
+import java.util.List;
+
+import com.squareup.moshi.Json;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class MultipleAccounts extends RpcResultObject {
+
+    // entries are null for accounts that do not exist
+    @Json(name = "value")
+    private List<AccountInfo.Value> value;
+}
@@ -1,16 +1,20 @@
 package org.p2p.solanaj.rpc.types;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.AbstractMap;
 import java.util.List;
 import java.util.Base64;
 
 import com.squareup.moshi.Json;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.ToString;
+import org.p2p.solanaj.core.PublicKey;
 import org.p2p.solanaj.rpc.types.config.RpcSendTransactionConfig.Encoding;
+import org.p2p.solanaj.utils.Base58;
 
-import org.bitcoinj.core.Base58;
 
 @Getter
 @ToString
@@ -20,19 +24,19 @@ public class ProgramAccount {
     @ToString
     public static class Account {
         @Json(name = "data")
-        private String data;
+        private volatile String data;
 
         @Json(name = "executable")
         private boolean executable;
 
         @Json(name = "lamports")
-        private double lamports;
+        private long lamports;
 
         @Json(name = "owner")
         private String owner;
 
         @Json(name = "rentEpoch")
-        private double rentEpoch;
+        private long rentEpoch;
 
         private String encoding;
 
@@ -51,17 +55,97 @@ public class ProgramAccount {
             }
 
             this.executable = (boolean) account.get("executable");
-            this.lamports = (double) account.get("lamports");
+            this.lamports = AccountInfoValueJsonAdapter.toU64(((Number) account.get("lamports")).doubleValue());
             this.owner = (String) account.get("owner");
-            this.rentEpoch = (double) account.get("rentEpoch");
+            // u64::MAX becomes -1, as in the streaming adapter
+            this.rentEpoch = AccountInfoValueJsonAdapter.toU64(((Number) account.get("rentEpoch")).doubleValue());
         }
 
+        public Account(String data, String encoding, boolean executable, long lamports, String owner,
+                long rentEpoch) {
+            this.data = data;
+            this.encoding = encoding;
+            this.executable = executable;
+            this.lamports = lamports;
+            this.owner = owner;
+            this.rentEpoch = rentEpoch;
+        }
+
+        // decoded on first access, see data()
+        @Getter(AccessLevel.NONE)
+        @ToString.Exclude
+        private volatile byte[] decodedData;
+
+        public String getData() {
+            String encoded = data;
+            if (encoded == null && decodedData != null) {
+                return isBase64() ? Base64.getEncoder().encodeToString(decodedData) : Base58.encode(decodedData);
+            }
+            return encoded;
+        }
+
+        /**
+         * @return a fresh copy of the decoded account data
+         */
         public byte[] getDecodedData() {
-            if (encoding != null && encoding.equals(Encoding.base64.toString())) {
-                return Base64.getDecoder().decode(data);
+            return data().clone();
+        }
+
+        /**
+         * Read-only little-endian view over the decoded account data. The data is decoded once and shared by every
+         * view and offset accessor of this account.
+         * @return read-only buffer positioned at 0
+         */
+        public ByteBuffer getDataBuffer() {
+            return ByteBuffer.wrap(data()).asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        public int getDataLength() {
+            return data().length;
+        }
+
+        public int readU8(int offset) {
+            return data()[offset] & 0xFF;
+        }
+
+        /**
+         * Reads a little-endian u64. Values above {@link Long#MAX_VALUE} come back negative; use
+         * {@link Long#toUnsignedString(long)} or {@link Long#compareUnsigned(long, long)} where that matters.
+         */
+        public long readU64(int offset) {
+            return ByteBuffer.wrap(data(), offset, 8).order(ByteOrder.LITTLE_ENDIAN).getLong();
+        }
+
+        public PublicKey readPublicKey(int offset) {
+            return PublicKey.readPubkey(data(), offset);
+        }
+
+        /**
+         * Decodes the data and drops the encoded string, so only the raw bytes stay on the heap. {@link #getData()}
+         * re-encodes on demand afterwards.
+         */
+        public void discardEncodedData() {
+            // decodedData is published before data is cleared, so a concurrent data() never decodes null
+            data();
+            data = null;
+        }
+
+        private byte[] data() {
+            byte[] decoded = decodedData;
+            if (decoded == null) {
+                synchronized (this) {
+                    decoded = decodedData;
+                    if (decoded == null) {
+                        decoded = isBase64() ? Base64.getDecoder().decode(data) : Base58.decode(data);
+                        decodedData = decoded;
+                    }
+                }
             }
+            return decoded;
+        }
 
-            return Base58.decode(data);
+        private boolean isBase64() {
+            return encoding != null && encoding.equals(Encoding.base64.toString());
         }
     }
 
@@ -71,6 +155,11 @@ public class ProgramAccount {
     @Json(name = "pubkey")
     private String pubkey;
 
+    public ProgramAccount(Account account, String pubkey) {
+        this.account = account;
+        this.pubkey = pubkey;
+    }
+
     @SuppressWarnings({ "rawtypes" })
     public ProgramAccount(AbstractMap pa) {
         this.account = new Account(pa.get("account"));
@@ -0,0 +1,129 @@
+package org.p2p.solanaj.rpc.types;
+
+import java.io.IOException;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+
+/**
+ * Streaming adapter decoding one element of a getProgramAccounts result straight into {@link ProgramAccount}.
+ */
+public class ProgramAccountJsonAdapter extends JsonAdapter<ProgramAccount> {
+
+    private static final JsonReader.Options NAMES = JsonReader.Options.of("account", "pubkey");
+
+    private static final JsonReader.Options ACCOUNT_NAMES = JsonReader.Options.of("data", "executable", "lamports",
+            "owner", "rentEpoch");
+
+    @Override
+    public ProgramAccount fromJson(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonReader.Token.NULL) {
+            return reader.nextNull();
+        }
+
+        ProgramAccount.Account account = null;
+        String pubkey = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(NAMES)) {
+                case 0:
+                    account = readAccount(reader);
+                    break;
+                case 1:
+                    pubkey = reader.nextString();
+                    break;
+                default:
+                    reader.skipName();
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new ProgramAccount(account, pubkey);
+    }
+
+    @Override
+    public void toJson(JsonWriter writer, ProgramAccount value) throws IOException {
+        if (value == null) {
+            writer.nullValue();
+            return;
+        }
+
+        ProgramAccount.Account account = value.getAccount();
+
+        writer.beginObject();
+        writer.name("account");
+        if (account == null) {
+            writer.nullValue();
+        } else {
+            writer.beginObject();
+            writer.name("data");
+            if (account.getEncoding() == null) {
+                writer.value(account.getData());
+            } else {
+                writer.beginArray().value(account.getData()).value(account.getEncoding()).endArray();
+            }
+            writer.name("executable").value(account.isExecutable());
+            writer.name("lamports").value(account.getLamports());
+            writer.name("owner").value(account.getOwner());
+            writer.name("rentEpoch").value(account.getRentEpoch());
+            writer.endObject();
+        }
+        writer.name("pubkey").value(value.getPubkey());
+        writer.endObject();
+    }
+
+    private static ProgramAccount.Account readAccount(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonReader.Token.NULL) {
+            return reader.nextNull();
+        }
+
+        String data = null;
+        String encoding = null;
+        boolean executable = false;
+        long lamports = 0;
+        String owner = null;
+        long rentEpoch = 0;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(ACCOUNT_NAMES)) {
+                case 0:
+                    if (reader.peek() == JsonReader.Token.BEGIN_ARRAY) {
+                        reader.beginArray();
+                        data = reader.nextString();
+                        encoding = reader.nextString();
+                        while (reader.hasNext()) {
+                            reader.skipValue();
+                        }
+                        reader.endArray();
+                    } else if (reader.peek() == JsonReader.Token.STRING) {
+                        data = reader.nextString();
+                    } else {
+                        reader.skipValue();
+                    }
+                    break;
+                case 1:
+                    executable = reader.nextBoolean();
+                    break;
+                case 2:
+                    lamports = AccountInfoValueJsonAdapter.readU64(reader);
+                    break;
+                case 3:
+                    owner = reader.nextString();
+                    break;
+                case 4:
+                    rentEpoch = AccountInfoValueJsonAdapter.readU64(reader);
+                    break;
+                default:
+                    reader.skipName();
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new ProgramAccount.Account(data, encoding, executable, lamports, owner, rentEpoch);
+    }
+}
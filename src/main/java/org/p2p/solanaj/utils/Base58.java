@@ -0,0 +1,219 @@
+package org.p2p.solanaj.utils;
+
+/**
+ * Base58 codec with the bitcoin alphabet, as used for Solana keys, signatures and blockhashes.
+ *
+ * Instead of dividing the whole number by 58 once per output character, values are converted in limbs of 58^5: the
+ * input is held as 32-bit words and divided by 58^5 once per five characters, each step a single long division per
+ * word. Beyond that, the encode and decode methods that write into caller buffers allocate only one small word
+ * array, which makes them suited to 32-byte keys and 64-byte signatures on hot paths.
+ */
+public class Base58 {
+
+    private static final char[] ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz".toCharArray();
+    private static final int[] INDEXES = new int[128];
+    // 58^5, the largest power of 58 whose products with 32-bit words fit a long
+    private static final long LIMB = 656_356_768L;
+    private static final int LIMB_DIGITS = 5;
+
+    static {
+        for (int i = 0; i < INDEXES.length; i++) {
+            INDEXES[i] = -1;
+        }
+        for (int i = 0; i < ALPHABET.length; i++) {
+            INDEXES[ALPHABET[i]] = i;
+        }
+    }
+
+    /**
+     * @return upper bound of the encoded length of {@code length} bytes
+     */
+    public static int maxEncodedLength(int length) {
+        // log(256) / log(58) < 1.38
+        return length * 138 / 100 + 1;
+    }
+
+    public static String encode(byte[] input) {
+        char[] encoded = new char[maxEncodedLength(input.length)];
+        int length = encode(input, 0, input.length, encoded, 0);
+        return new String(encoded, 0, length);
+    }
+
+    /**
+     * Encodes {@code input[offset..offset+length)} into {@code output} at {@code outputOffset}, which needs room for
+     * {@link #maxEncodedLength(int)} characters.
+     * @return number of characters written
+     */
+    public static int encode(byte[] input, int offset, int length, char[] output, int outputOffset) {
+        int zeros = 0;
+        while (zeros < length && input[offset + zeros] == 0) {
+            zeros++;
+        }
+
+        // significant bytes as big-endian 32-bit words
+        int significant = length - zeros;
+        int wordCount = (significant + 3) / 4;
+        int[] words = new int[wordCount];
+        for (int i = 0; i < significant; i++) {
+            words[wordCount - 1 - i / 4] |= (input[offset + length - 1 - i] & 0xff) << (8 * (i % 4));
+        }
+
+        // divide by 58^5 until nothing is left, keeping the remainders as limbs, least significant first;
+        // the quotient is written back over the words so the division shrinks as leading words become zero
+        int[] limbs = words.length == 0 ? words : new int[maxEncodedLength(significant) / LIMB_DIGITS + 1];
+        int limbCount = 0;
+        int first = 0;
+        while (first < wordCount) {
+            long remainder = 0;
+            for (int j = first; j < wordCount; j++) {
+                long current = (remainder << 32) | (words[j] & 0xffffffffL);
+                words[j] = (int) (current / LIMB);
+                remainder = current % LIMB;
+            }
+            limbs[limbCount++] = (int) remainder;
+            while (first < wordCount && words[first] == 0) {
+                first++;
+            }
+        }
+
+        int position = outputOffset;
+        for (int i = 0; i < zeros; i++) {
+            output[position++] = ALPHABET[0];
+        }
+        if (limbCount == 0) {
+            return position - outputOffset;
+        }
+
+        // the top limb has no leading zero digits, every other limb is exactly five digits
+        int top = limbs[limbCount - 1];
+        int topDigits = 0;
+        for (int value = top; value > 0; value /= 58) {
+            topDigits++;
+        }
+        for (int k = topDigits - 1; k >= 0; k--) {
+            output[position + k] = ALPHABET[top % 58];
+            top /= 58;
+        }
+        position += topDigits;
+
+        for (int i = limbCount - 2; i >= 0; i--) {
+            int value = limbs[i];
+            for (int k = LIMB_DIGITS - 1; k >= 0; k--) {
+                output[position + k] = ALPHABET[value % 58];
+                value /= 58;
+            }
+            position += LIMB_DIGITS;
+        }
+
+        return position - outputOffset;
+    }
+
+    public static byte[] decode(String input) {
+        int zeros = leadingZeros(input);
+        // log(58) / log(256) < 0.733
+        int wordCount = ((input.length() - zeros) * 733 / 1000 + 1 + 3) / 4;
+        int[] words = accumulate(input, zeros, wordCount);
+
+        int significant = wordCount * 4;
+        while (significant > 0 && byteAt(words, significant - 1) == 0) {
+            significant--;
+        }
+
+        byte[] output = new byte[zeros + significant];
+        writeBytes(words, significant, output, zeros);
+        return output;
+    }
+
+    /**
+     * Decodes {@code input}, which must encode exactly {@code length} bytes, into {@code output} at
+     * {@code outputOffset}.
+     * @throws IllegalArgumentException if {@code input} is not valid base58 or does not decode to {@code length}
+     *                                  bytes
+     */
+    public static void decode(CharSequence input, byte[] output, int outputOffset, int length) {
+        int zeros = leadingZeros(input);
+        int significant = length - zeros;
+        if (significant < 0) {
+            throw new IllegalArgumentException("Base58 input is longer than " + length + " bytes");
+        }
+
+        int wordCount = (significant + 3) / 4;
+        int[] words = accumulate(input, zeros, wordCount);
+
+        // the value must take exactly the bytes left after the leading zeros
+        for (int i = wordCount * 4 - 1; i >= significant; i--) {
+            if (byteAt(words, i) != 0) {
+                throw new IllegalArgumentException("Base58 input is longer than " + length + " bytes");
+            }
+        }
+        if (significant > 0 && byteAt(words, significant - 1) == 0) {
+            throw new IllegalArgumentException("Base58 input is shorter than " + length + " bytes");
+        }
+
+        for (int i = 0; i < zeros; i++) {
+            output[outputOffset + i] = 0;
+        }
+        writeBytes(words, significant, output, outputOffset + zeros);
+    }
+
+    private static int leadingZeros(CharSequence input) {
+        int zeros = 0;
+        while (zeros < input.length() && input.charAt(zeros) == ALPHABET[0]) {
+            zeros++;
+        }
+        return zeros;
+    }
+
+    /**
+     * Reads the digits of {@code input} from {@code from} on into little-endian 32-bit words, five digits per
+     * multiply-and-add pass.
+     */
+    private static int[] accumulate(CharSequence input, int from, int wordCount) {
+        int[] words = new int[wordCount];
+        int length = input.length();
+        int position = from;
+        // a short first group keeps the remaining groups aligned to five digits
+        int group = (length - from) % LIMB_DIGITS == 0 ? LIMB_DIGITS : (length - from) % LIMB_DIGITS;
+
+        while (position < length) {
+            long value = 0;
+            long multiplier = 1;
+            for (int k = 0; k < group; k++) {
+                value = value * 58 + digit(input.charAt(position++));
+                multiplier *= 58;
+            }
+
+            long carry = value;
+            for (int w = 0; w < wordCount; w++) {
+                long current = (words[w] & 0xffffffffL) * multiplier + carry;
+                words[w] = (int) current;
+                carry = current >>> 32;
+            }
+            if (carry != 0) {
+                throw new IllegalArgumentException("Base58 input is too long");
+            }
+            group = LIMB_DIGITS;
+        }
+
+        return words;
+    }
+
+    private static int digit(char c) {
+        int digit = c < 128 ? INDEXES[c] : -1;
+        if (digit < 0) {
+            throw new IllegalArgumentException("Invalid base58 character " + c);
+        }
+        return digit;
+    }
+
+    // byte i of little-endian words, 0 being the least significant
+    private static int byteAt(int[] words, int i) {
+        return (words[i / 4] >>> (8 * (i % 4))) & 0xff;
+    }
+
+    private static void writeBytes(int[] words, int significant, byte[] output, int outputOffset) {
+        for (int i = 0; i < significant; i++) {
+            output[outputOffset + significant - 1 - i] = (byte) byteAt(words, i);
+        }
+    }
+}
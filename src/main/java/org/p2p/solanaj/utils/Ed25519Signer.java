@@ -0,0 +1,59 @@
+package org.p2p.solanaj.utils;
+
+/**
+ * Ed25519 signer that expands its secret key once.
+ *
+ * {@link TweetNaclFast.Signature} hashes the 32-byte seed on every signature to derive the clamped scalar and the
+ * nonce prefix; this keeps both, so each signature only hashes the message. Instances are immutable and safe to
+ * share between threads.
+ */
+public class Ed25519Signer {
+
+    public static final int SIGNATURE_LENGTH = TweetNaclFast.Signature.signatureLength;
+
+    // clamped scalar followed by the nonce prefix
+    private final byte[] expandedKey = new byte[64];
+    private final byte[] publicKey = new byte[TweetNaclFast.Signature.publicKeyLength];
+
+    /**
+     * @param secretKey 64-byte secret key, the seed followed by the public key
+     */
+    public Ed25519Signer(byte[] secretKey) {
+        if (secretKey.length != TweetNaclFast.Signature.secretKeyLength) {
+            throw new IllegalArgumentException("Invalid secret key length");
+        }
+
+        TweetNaclFast.crypto_hash(expandedKey, secretKey, 0, 32);
+        expandedKey[0] &= 248;
+        expandedKey[31] &= 127;
+        expandedKey[31] |= 64;
+
+        System.arraycopy(secretKey, 32, publicKey, 0, publicKey.length);
+    }
+
+    public byte[] getPublicKey() {
+        return publicKey.clone();
+    }
+
+    public byte[] sign(byte[] message) {
+        byte[] signature = new byte[SIGNATURE_LENGTH];
+        sign(message, 0, message.length, signature, 0);
+        return signature;
+    }
+
+    /**
+     * Signs {@code message[offset..offset+length)} and writes the signature into {@code signature} at
+     * {@code signatureOffset}.
+     */
+    public void sign(byte[] message, int offset, int length, byte[] signature, int signatureOffset) {
+        if (offset < 0 || length < 0 || message.length < offset + length) {
+            throw new IllegalArgumentException("message out of bounds");
+        }
+        if (signatureOffset < 0 || signature.length < signatureOffset + SIGNATURE_LENGTH) {
+            throw new IllegalArgumentException("signature buffer too small");
+        }
+
+        TweetNaclFast.crypto_sign_detached(signature, signatureOffset, message, offset, length, expandedKey,
+                publicKey, 0);
+    }
+}
@@ -2,6 +2,8 @@ package org.p2p.solanaj.utils;
 
 import static org.bitcoinj.core.Utils.*;
 
+import java.nio.ByteBuffer;
+
 public class ShortvecEncoding {
 
     public static byte[] encodeLength(int len) {
@@ -27,4 +29,47 @@ public class ShortvecEncoding {
 
         return bytes;
     }
+
+    /**
+     * @return number of bytes {@link #encodeLength(int)} produces for {@code len}
+     */
+    public static int encodedLength(int len) {
+        int size = 1;
+        for (int remLen = len >>> 7; remLen != 0; remLen >>>= 7) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Writes the encoding of {@code len} at the buffer's position without allocating.
+     */
+    public static void encodeLength(ByteBuffer out, int len) {
+        int remLen = len;
+        for (;;) {
+            int elem = remLen & 0x7f;
+            remLen >>>= 7;
+            if (remLen == 0) {
+                out.put((byte) elem);
+                return;
+            }
+            out.put((byte) (elem | 0x80));
+        }
+    }
+
+    /**
+     * Reads a length written by {@link #encodeLength(int)}, advancing the buffer past it.
+     */
+    public static int decodeLength(ByteBuffer in) {
+        int len = 0;
+        int shift = 0;
+        for (;;) {
+            int elem = in.get() & 0xff;
+            len |= (elem & 0x7f) << shift;
+            if ((elem & 0x80) == 0) {
+                return len;
+            }
+            shift += 7;
+        }
+    }
 }
@@ -5,6 +5,9 @@ package org.p2p.solanaj.utils;
 // Copyright (c) 2014 Tom Zhou<appnet.link@gmail.com>
 
 import java.io.UnsupportedEncodingException;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.lang.System;
 import java.util.concurrent.atomic.AtomicLong;
@@ -761,13 +764,26 @@ public final class TweetNaclFast {
 		 *   Signs the message using the secret key and returns a signature.
 		 * */
 		public byte [] detached(byte [] message) {
-			byte[] signedMsg = this.sign(message);
-			byte[] sig = new byte[signatureLength];
-			for (int i = 0; i < sig.length; i++)
-				sig[i] = signedMsg[i];
+			byte [] sig = new byte[signatureLength];
+			detached(message, 0, message.length, sig, 0);
 			return sig;
 		}
 
+		/*
+		 * @description
+		 *   Signs message[moff..moff+mlen) and writes the 64-byte signature
+		 *   into signature at sigoff, e.g. straight into a transaction's wire buffer.
+		 *   Allocates nothing once the calling thread has signed before.
+		 * */
+		public void detached(byte [] message, final int moff, final int mlen, byte [] signature, final int sigoff) {
+			if (!(message!=null && message.length>=(moff+mlen)))
+				throw new IllegalArgumentException("message out of bounds");
+			if (!(signature!=null && signature.length>=(sigoff+signatureLength)))
+				throw new IllegalArgumentException("signature buffer too small");
+
+			crypto_sign_detached(signature, sigoff, message, moff, mlen, mySecretKey);
+		}
+
 		/*
 		 * @description
 		 *   Verifies the signature for the message and 
@@ -3236,6 +3252,443 @@ public final class TweetNaclFast {
 		return 0;
 	}
 
+	/*
+	 * @description
+	 *   Scratch state for detached signing, kept per thread so that signing
+	 *   allocates nothing once a thread has signed before.
+	 * */
+	private static final class SignScratch {
+		final MessageDigest sha512;
+		final byte [] d = new byte[64], r = new byte[64], h = new byte[64], packed = new byte[32];
+		final long [] x = new long[64];
+		final long [] [] p = new long[4][16];
+		// field element temporaries of add() and pack()
+		final long [] [] t = new long[9][16];
+		// table entry selected by scalarbase_comb()
+		final long [] [] e = new long[4][16];
+
+		SignScratch() {
+			try {
+				sha512 = MessageDigest.getInstance("SHA-512");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException("SHA-512 not available", e);
+			}
+		}
+	}
+
+	private static final ThreadLocal<SignScratch> signScratch = ThreadLocal.withInitial(SignScratch::new);
+
+	/*
+	 * @description
+	 *   Same as crypto_sign, but writes only the 64-byte signature of m to sig at sigoff,
+	 *   without building the signed message or allocating temporaries.
+	 *   sk is the 64-byte secret key (seed followed by public key).
+	 * */
+	public static int crypto_sign_detached(byte [] sig,final int sigoff, byte [] m,final int moff, int/*long*/ n, byte [] sk)
+	{
+		SignScratch s = signScratch.get();
+		byte [] d = s.d;
+
+		s.sha512.update(sk, 0, 32);
+		digest(s.sha512, d);
+		d[0] &= 248;
+		d[31] &= 127;
+		d[31] |= 64;
+
+		return crypto_sign_detached(sig,sigoff, m,moff, n, d, sk,32, s);
+	}
+
+	/*
+	 * @description
+	 *   Detached signing with an already expanded secret key: d holds the clamped
+	 *   scalar in its first 32 bytes and the nonce prefix in the last 32.
+	 * */
+	public static int crypto_sign_detached(byte [] sig,final int sigoff, byte [] m,final int moff, int/*long*/ n,
+			byte [] d, byte [] pk,final int pkoff)
+	{
+		return crypto_sign_detached(sig,sigoff, m,moff, n, d, pk,pkoff, signScratch.get());
+	}
+
+	private static int crypto_sign_detached(byte [] sig,final int sigoff, byte [] m,final int moff, int/*long*/ n,
+			byte [] d, byte [] pk,final int pkoff, SignScratch s)
+	{
+		byte [] r = s.r, h = s.h;
+		long [] x = s.x;
+		MessageDigest sha512 = s.sha512;
+		int i, j;
+
+		// r = H(prefix || m)
+		sha512.update(d, 32, 32);
+		sha512.update(m, moff, n);
+		digest(sha512, r);
+		reduce(r, x);
+		scalarbase_comb(s.p, r, s);
+		pack(sig,sigoff, s.p, s);
+
+		// h = H(R || pk || m)
+		sha512.update(sig, sigoff, 32);
+		sha512.update(pk, pkoff, 32);
+		sha512.update(m, moff, n);
+		digest(sha512, h);
+		reduce(h, x);
+
+		for (i = 0; i < 64; i ++) x[i] = 0;
+
+		for (i = 0; i < 32; i ++) x[i] = (long) (r[i]&0xff);
+
+		for (i = 0; i < 32; i ++) for (j = 0; j < 32; j ++) x[i+j] += (h[i]&0xff) * (long) (d[j]&0xff);
+
+		modL(sig,sigoff+32, x);
+
+		return 0;
+	}
+
+	private static void digest(MessageDigest sha512, byte [] out)
+	{
+		try {
+			sha512.digest(out, 0, 64);
+		} catch (DigestException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void reduce(byte [] r, long [] x)
+	{
+		int i;
+
+		for (i = 0; i < 64; i ++) x[i] = (long) (r[i]&0xff);
+
+		for (i = 0; i < 64; i ++) r[i] = 0;
+
+		modL(r,0, x);
+	}
+
+	// add(p, q) with the temporaries taken from s
+	private static void add(long [] p[], long [] q[], SignScratch s)
+	{
+		long [] [] t = s.t;
+		long [] a = t[0], b = t[1], c = t[2], d = t[3], u = t[4], e = t[5], f = t[6], g = t[7], h = t[8];
+
+		long [] p0 = p[0];
+		long [] p1 = p[1];
+		long [] p2 = p[2];
+		long [] p3 = p[3];
+
+		long [] q0 = q[0];
+		long [] q1 = q[1];
+		long [] q2 = q[2];
+		long [] q3 = q[3];
+
+		Z(a,0, p1,0, p0,0);
+		Z(u,0, q1,0, q0,0);
+		M(a,0, a,0,   u,0);
+		A(b,0, p0,0, p1,0);
+		A(u,0, q0,0, q1,0);
+		M(b,0, b,0,   u,0);
+		M(c,0, p3,0, q3,0);
+		M(c,0, c,0,  D2,0);
+		M(d,0, p2,0, q2,0);
+
+		A(d,0, d,0, d,0);
+		Z(e,0, b,0, a,0);
+		Z(f,0, d,0, c,0);
+		A(g,0, d,0, c,0);
+		A(h,0, b,0, a,0);
+
+		M(p0,0, e,0, f,0);
+		M(p1,0, h,0, g,0);
+		M(p2,0, g,0, f,0);
+		M(p3,0, e,0, h,0);
+	}
+
+	private static void pack(byte [] r,final int roff, long [] p[], SignScratch s)
+	{
+		long [] [] t = s.t;
+		long [] tx = t[0], ty = t[1], zi = t[2], c = t[3];
+		int a;
+
+		// inv25519(zi, p[2])
+		for (a = 0; a < 16; a++) c[a] = p[2][a];
+		for (a = 253; a >= 0; a--) {
+			S(c,0, c,0);
+			if(a != 2 && a != 4) M(c,0, c,0, p[2],0);
+		}
+		for (a = 0; a < 16; a++) zi[a] = c[a];
+
+		M(tx,0, p[0],0, zi,0);
+		M(ty,0, p[1],0, zi,0);
+
+		pack25519(s.packed,0, tx, t[4], t[5]);
+		byte parity = (byte) (s.packed[0] & 1);
+
+		pack25519(s.packed,0, ty, t[4], t[5]);
+		for (a = 0; a < 32; a++) r[a+roff] = s.packed[a];
+
+		r[31+roff] ^= parity << 7;
+	}
+
+	/*
+	 * @description
+	 *   Fixed-base table for scalarbase_comb: entry [w][j] is j * 16^w * B,
+	 *   for each of the 64 4-bit windows of a scalar. About 512KB, built on first use.
+	 * */
+	private static final class BaseTable {
+		static final long [] [] [] [] T = build();
+
+		private static long [] [] [] [] build() {
+			SignScratch s = new SignScratch();
+			long [] [] [] [] table = new long[64][16][4][16];
+			long [] [] base = new long[4][16];
+
+			set25519(base[0],X);
+			set25519(base[1],Y);
+			set25519(base[2],gf1);
+			M(base[3],0, X,0, Y,0);
+
+			for (int w = 0; w < 64; w++) {
+				// entry 0 is the neutral element
+				set25519(table[w][0][1],gf1);
+				set25519(table[w][0][2],gf1);
+				for (int j = 1; j < 16; j++) {
+					for (int c = 0; c < 4; c++) set25519(table[w][j][c], table[w][j-1][c]);
+					add(table[w][j], base, s);
+				}
+				// next base is 16 times this one
+				add(base, table[w][15], s);
+			}
+			return table;
+		}
+	}
+
+	/*
+	 * @description
+	 *   p = s * B like scalarbase, but with one table addition per 4-bit window
+	 *   instead of a double-and-add ladder over every bit. Every window adds a
+	 *   table entry, chosen by scanning all 16 with masks, so the sequence of
+	 *   operations does not depend on the secret scalar.
+	 * */
+	private static void scalarbase_comb(long [] p[], byte [] s, SignScratch scratch)
+	{
+		long [] [] [] [] table = BaseTable.T;
+		long [] [] e = scratch.e;
+
+		set25519(p[0],gf0);
+		set25519(p[1],gf1);
+		set25519(p[2],gf1);
+		set25519(p[3],gf0);
+
+		for (int w = 0; w < 64; w++) {
+			int digit = (s[w >> 1] >>> ((w & 1) << 2)) & 15;
+
+			for (int j = 0; j < 16; j++) {
+				// all ones when j == digit, zero otherwise
+				long mask = -(long) (((j ^ digit) - 1) >>> 31);
+				long [] [] entry = table[w][j];
+				for (int c = 0; c < 4; c++) {
+					long [] ec = e[c], tc = entry[c];
+					for (int i = 0; i < 16; i++) ec[i] ^= mask & (ec[i] ^ tc[i]);
+				}
+			}
+			add(p, e, scratch);
+		}
+	}
+
+	/*
+	 * @description
+	 *   Verifies n detached signatures at once, item i being the signature sig[off+i]
+	 *   of message m[off+i] under public key pk[off+i].
+	 *
+	 *   With random 128-bit z_i, checks the cofactored combination
+	 *   [8]([sum z_i s_i]B - sum [z_i]R_i - sum [z_i h_i]A_i) == 0
+	 *   with a single multi-scalar multiplication. It holds for every batch of valid
+	 *   signatures, and for a batch with an invalid one only with negligible probability.
+	 *   Being cofactored, it also accepts signatures whose R or A carry a small-order
+	 *   component that crypto_sign_open would reject; honest signers never produce those.
+	 *   Signatures with s >= L are rejected.
+	 * */
+	static boolean crypto_sign_verify_batch(byte [][] m, byte [][] sig, byte [][] pk, final int off, final int n,
+			SecureRandom random)
+	{
+		int points = 2*n + 1, i;
+		long [] [] [] p = new long[points][][];
+		byte [] [] scalars = new byte[points][];
+		byte [] b = new byte[32], z = new byte[32], t = new byte[32], h = new byte[64], r = new byte[32];
+		long [] x = new long[64];
+		SignScratch s = new SignScratch();
+
+		for (i = 0; i < n; i++) {
+			byte [] si = sig[off+i], pki = pk[off+i], mi = m[off+i];
+			if (si.length != 64 || pki.length != 32) return false;
+			if (!isCanonicalScalar(si,32)) return false;
+
+			// unpackneg gives -R and -A, the signs the combination needs
+			long [] [] negR = new long[4][16], negA = new long[4][16];
+			for (int j = 0; j < 32; j++) r[j] = si[j];
+			if (unpackneg(negR, r) != 0) return false;
+			if (unpackneg(negA, pki) != 0) return false;
+
+			s.sha512.update(si, 0, 32);
+			s.sha512.update(pki, 0, 32);
+			s.sha512.update(mi, 0, mi.length);
+			digest(s.sha512, h);
+			reduce(h, x);
+
+			random.nextBytes(t);
+			for (int j = 0; j < 32; j++) z[j] = j < 16 ? t[j] : 0;
+
+			p[2*i] = negR;
+			scalars[2*i] = z.clone();
+			p[2*i+1] = negA;
+			scalars[2*i+1] = new byte[32];
+			mulModL(scalars[2*i+1], z, h, x);
+
+			mulModL(t, z, si, 32, x);
+			addModL(b, t, x);
+		}
+
+		long [] [] base = new long[4][16];
+		set25519(base[0],X);
+		set25519(base[1],Y);
+		set25519(base[2],gf1);
+		M(base[3],0, X,0, Y,0);
+		p[points-1] = base;
+		scalars[points-1] = b;
+
+		long [] [] q = new long[4][16];
+		multiscalarmult(q, p, scalars, points, s);
+		add(q,q, s);
+		add(q,q, s);
+		add(q,q, s);
+
+		// the neutral element packs to y = 1, x = 0
+		pack(t,0, q, s);
+		if (t[0] != 1) return false;
+		for (i = 1; i < 32; i++) if (t[i] != 0) return false;
+		return true;
+	}
+
+	private static boolean isCanonicalScalar(byte [] s,final int soff)
+	{
+		for (int i = 31; i >= 0; i--) {
+			int v = s[i+soff]&0xff;
+			if (v < L[i]) return true;
+			if (v > L[i]) return false;
+		}
+		return false;
+	}
+
+	// r = a * b mod L, for 32-byte a and b
+	private static void mulModL(byte [] r, byte [] a, byte [] b, long [] x)
+	{
+		mulModL(r, a, b,0, x);
+	}
+	private static void mulModL(byte [] r, byte [] a, byte [] b,final int boff, long [] x)
+	{
+		int i, j;
+		for (i = 0; i < 64; i ++) x[i] = 0;
+		for (i = 0; i < 32; i ++) for (j = 0; j < 32; j ++) x[i+j] += (a[i]&0xff) * (long) (b[j+boff]&0xff);
+		modL(r,0, x);
+	}
+
+	// r = r + a mod L
+	private static void addModL(byte [] r, byte [] a, long [] x)
+	{
+		int i;
+		for (i = 0; i < 64; i ++) x[i] = 0;
+		for (i = 0; i < 32; i ++) x[i] = (r[i]&0xff) + (a[i]&0xff);
+		modL(r,0, x);
+	}
+
+	/*
+	 * @description
+	 *   r = sum [s_i]p_i with Pippenger's bucket method. Variable time,
+	 *   only for public inputs such as signature verification.
+	 * */
+	private static void multiscalarmult(long [] r[], long [][][] p, byte [][] s, final int n, SignScratch scratch)
+	{
+		int c = n < 8 ? 3 : n < 32 ? 4 : n < 128 ? 5 : n < 512 ? 6 : n < 2048 ? 7 : 8;
+		int windows = (256 + c - 1) / c, i, j, w;
+		long [] [] [] bucket = new long[1 << c][4][16];
+		boolean [] used = new boolean[1 << c];
+		long [] [] sum = new long[4][16], total = new long[4][16];
+		boolean started = false;
+
+		set25519(r[0],gf0);
+		set25519(r[1],gf1);
+		set25519(r[2],gf1);
+		set25519(r[3],gf0);
+
+		for (w = windows - 1; w >= 0; w--) {
+			if (started) for (i = 0; i < c; i++) add(r,r, scratch);
+
+			for (j = 0; j < used.length; j++) used[j] = false;
+			for (i = 0; i < n; i++) {
+				int digit = 0;
+				for (j = 0; j < c; j++) {
+					int bit = w*c + j;
+					if (bit < 256) digit |= ((s[i][bit >> 3] >>> (bit & 7)) & 1) << j;
+				}
+				if (digit == 0) continue;
+				if (used[digit]) {
+					add(bucket[digit], p[i], scratch);
+				} else {
+					for (j = 0; j < 4; j++) set25519(bucket[digit][j], p[i][j]);
+					used[digit] = true;
+				}
+			}
+
+			// total = sum_j j * bucket[j], as a running sum from the top bucket down
+			boolean sumUsed = false, totalUsed = false;
+			for (j = used.length - 1; j > 0; j--) {
+				if (used[j]) {
+					if (sumUsed) {
+						add(sum, bucket[j], scratch);
+					} else {
+						for (i = 0; i < 4; i++) set25519(sum[i], bucket[j][i]);
+						sumUsed = true;
+					}
+				}
+				if (sumUsed) {
+					if (totalUsed) {
+						add(total, sum, scratch);
+					} else {
+						for (i = 0; i < 4; i++) set25519(total[i], sum[i]);
+						totalUsed = true;
+					}
+				}
+			}
+			if (totalUsed) {
+				add(r, total, scratch);
+				started = true;
+			}
+		}
+	}
+
+	// pack25519(o, n) with the temporaries m and t given
+	private static void pack25519(byte [] o,final int ooff, long [] n, long [] m, long [] t)
+	{
+		int i, j, b;
+		for (i = 0; i < 16; i++) t[i] = n[i];
+		car25519(t);
+		car25519(t);
+		car25519(t);
+		for (j = 0; j < 2; j++) {
+			m[0] = t[0] - 0xffed;
+			for (i = 1; i < 15; i++) {
+				m[i] = t[i] - 0xffff - ((m[i-1]>>16) & 1);
+				m[i-1] &= 0xffff;
+			}
+			m[15] = t[15] - 0x7fff - ((m[14]>>16) & 1);
+			b = (int) ((m[15]>>16) & 1);
+			m[14] &= 0xffff;
+			sel25519(t,0, m,0, 1-b);
+		}
+		for (i = 0; i < 16; i++) {
+			o[2*i+ooff] = (byte) (t[i] & 0xff);
+			o[2*i+1+ooff] = (byte) (t[i]>>8);
+		}
+	}
+
 	private static int unpackneg(long [] r[], byte p[])
 	{
 		long []    t = new long [16];
@@ -3407,6 +3860,81 @@ public final class TweetNaclFast {
 	// public static boolean java.util.Arrays.equals(array1, array2);
 
   // Check that a pubkey is on the curve.
+	/*
+	 * @description
+	 *   Same answer as is_on_curve, for the y coordinate encoded in p, without the
+	 *   square root: the point exists iff u/v = (y^2 - 1)/(d y^2 + 1) is a square,
+	 *   i.e. iff the Jacobi symbol of u*v modulo 2^255 - 19 is not -1. The symbol is
+	 *   computed with the binary algorithm on four 64-bit limbs, which is far cheaper
+	 *   than the exponentiation is_on_curve needs.
+	 * */
+	public static int is_on_curve_fast(byte p[]) {
+		long [] y = new long[16], y2 = new long[16], u = new long[16], v = new long[16];
+		byte [] w = new byte[32];
+
+		unpack25519(y, p);
+		S(y2, y);
+		Z(u, y2, gf1);
+		M(v, y2, D);
+		A(v, v, gf1);
+		M(u, u, v);
+		pack25519(w,0, u, y, y2);
+
+		long [] a = new long[4], n = { -19L, -1L, -1L, 0x7fffffffffffffffL };
+		for (int i = 0; i < 32; i++) a[i >> 3] |= (w[i] & 0xffL) << (8 * (i & 7));
+
+		return jacobi(a, n) >= 0 ? 1 : 0;
+	}
+
+	// Jacobi symbol (a/n) for odd n, on little-endian unsigned 64-bit limbs; destroys a and n
+	private static int jacobi(long [] a, long [] n)
+	{
+		int result = 1;
+
+		while ((a[0] | a[1] | a[2] | a[3]) != 0) {
+			while ((a[0] & 1) == 0) {
+				shiftRight1(a);
+				int r = (int) (n[0] & 7);
+				if (r == 3 || r == 5) result = -result;
+			}
+			if (compareUnsigned(a, n) < 0) {
+				long [] t = a; a = n; n = t;
+				if ((a[0] & 3) == 3 && (n[0] & 3) == 3) result = -result;
+			}
+			// both odd, so a - n is even
+			subtract(a, n);
+		}
+
+		return (n[0] == 1 && (n[1] | n[2] | n[3]) == 0) ? result : 0;
+	}
+
+	private static void shiftRight1(long [] a)
+	{
+		a[0] = (a[0] >>> 1) | (a[1] << 63);
+		a[1] = (a[1] >>> 1) | (a[2] << 63);
+		a[2] = (a[2] >>> 1) | (a[3] << 63);
+		a[3] = a[3] >>> 1;
+	}
+
+	private static int compareUnsigned(long [] a, long [] b)
+	{
+		for (int i = 3; i >= 0; i--) {
+			if (a[i] != b[i]) return Long.compareUnsigned(a[i], b[i]);
+		}
+		return 0;
+	}
+
+	// a -= b, with a >= b
+	private static void subtract(long [] a, long [] b)
+	{
+		long borrow = 0;
+		for (int i = 0; i < 4; i++) {
+			long d = a[i] - b[i] - borrow;
+			borrow = (Long.compareUnsigned(a[i], b[i]) < 0 || (a[i] == b[i] && borrow == 1)) ? 1 : 0;
+			a[i] = d;
+		}
+	}
+
   public static int is_on_curve(byte p[]) {
 		long[] r[] = { new long [16], new long [16], new long [16], new long [16] };
 
@@ -0,0 +1,60 @@
+package org.p2p.solanaj.ws;
+
+import java.util.Base64;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+import org.p2p.solanaj.utils.Base58;
+
+/**
+ * An accountNotification: the new state of a subscribed account.
+ */
+@Getter
+@ToString
+public class AccountNotification {
+
+    private final long slot;
+    private final long lamports;
+    private final String owner;
+    private final boolean executable;
+    private final long rentEpoch;
+    private final long space;
+    // encoded data and its encoding, or null when the node sent jsonParsed data
+    private final String data;
+    private final String encoding;
+    // jsonParsed data as Maps and Lists, or null
+    private final Object parsedData;
+
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private volatile byte[] decodedData;
+
+    public AccountNotification(long slot, long lamports, String owner, boolean executable, long rentEpoch,
+            long space, String data, String encoding, Object parsedData) {
+        this.slot = slot;
+        this.lamports = lamports;
+        this.owner = owner;
+        this.executable = executable;
+        this.rentEpoch = rentEpoch;
+        this.space = space;
+        this.data = data;
+        this.encoding = encoding;
+        this.parsedData = parsedData;
+    }
+
+    /**
+     * @return a fresh copy of the decoded account data, or null for jsonParsed data
+     */
+    public byte[] getDecodedData() {
+        if (data == null) {
+            return null;
+        }
+        byte[] decoded = decodedData;
+        if (decoded == null) {
+            decoded = "base64".equals(encoding) ? Base64.getDecoder().decode(data) : Base58.decode(data);
+            decodedData = decoded;
+        }
+        return decoded.clone();
+    }
+}
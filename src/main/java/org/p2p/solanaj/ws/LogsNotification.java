@@ -0,0 +1,31 @@
+package org.p2p.solanaj.ws;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A logsNotification: the logs of one transaction mentioning a subscribed account.
+ */
+@Getter
+@ToString
+public class LogsNotification {
+
+    private final long slot;
+    private final String signature;
+    // transaction error as sent by the node, or null if it succeeded
+    private final Object error;
+    private final List<String> logs;
+
+    public LogsNotification(long slot, String signature, Object error, List<String> logs) {
+        this.slot = slot;
+        this.signature = signature;
+        this.error = error;
+        this.logs = logs;
+    }
+
+    public boolean hasError() {
+        return error != null;
+    }
+}
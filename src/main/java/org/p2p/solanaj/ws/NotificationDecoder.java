@@ -0,0 +1,323 @@
+package org.p2p.solanaj.ws;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.squareup.moshi.JsonReader;
+
+import lombok.Getter;
+import lombok.ToString;
+import okio.Buffer;
+import okio.BufferedSource;
+import org.p2p.solanaj.rpc.JsonAdapterRegistry;
+import org.p2p.solanaj.rpc.types.RpcResponse;
+
+import static org.p2p.solanaj.rpc.types.AccountInfoValueJsonAdapter.readU64;
+
+/**
+ * Single-pass decoder for frames received by {@link SubscriptionWebSocketClient}.
+ *
+ * A frame is either the response to a subscribe request or a notification. Notifications are read straight from the
+ * token stream into {@link AccountNotification}, {@link LogsNotification} or {@link SignatureNotification}, picked by
+ * the "method" field, without an intermediate map. A decoder holds no state and can be shared between threads.
+ */
+public class NotificationDecoder {
+
+    public static final String ACCOUNT_NOTIFICATION = "accountNotification";
+    public static final String LOGS_NOTIFICATION = "logsNotification";
+    public static final String SIGNATURE_NOTIFICATION = "signatureNotification";
+
+    private static final JsonReader.Options FRAME_NAMES = JsonReader.Options.of("id", "result", "error", "method",
+            "params");
+    private static final JsonReader.Options PARAMS_NAMES = JsonReader.Options.of("result", "subscription");
+    private static final JsonReader.Options RESULT_NAMES = JsonReader.Options.of("context", "value");
+    private static final JsonReader.Options CONTEXT_NAMES = JsonReader.Options.of("slot");
+    private static final JsonReader.Options ACCOUNT_NAMES = JsonReader.Options.of("lamports", "owner", "executable",
+            "rentEpoch", "space", "data");
+    private static final JsonReader.Options LOGS_NAMES = JsonReader.Options.of("signature", "err", "logs");
+    private static final JsonReader.Options SIGNATURE_NAMES = JsonReader.Options.of("err");
+
+    /**
+     * A decoded frame. Subscribe responses carry an id and either a result or an error; notifications carry a
+     * method, a subscription id and the typed notification.
+     */
+    @Getter
+    @ToString
+    public static class Frame {
+        private String id;
+        private Long result;
+        private RpcResponse.Error error;
+        private String method;
+        private long subscription;
+        // slot of the notification's context
+        private long slot;
+        // null for unknown methods and for signature "received" notifications
+        private Object notification;
+
+        public boolean isNotification() {
+            return method != null;
+        }
+    }
+
+    public Frame decode(String message) throws IOException {
+        try (JsonReader reader = JsonReader.of(new Buffer().writeUtf8(message))) {
+            return decode(reader);
+        }
+    }
+
+    public Frame decode(JsonReader reader) throws IOException {
+        Frame frame = new Frame();
+        // raw params seen before method; decoded once the method is known
+        Buffer pendingParams = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(FRAME_NAMES)) {
+                case 0:
+                    frame.id = reader.peek() == JsonReader.Token.NULL ? reader.nextNull() : reader.nextString();
+                    break;
+                case 1:
+                    if (reader.peek() == JsonReader.Token.NUMBER) {
+                        frame.result = reader.nextLong();
+                    } else {
+                        // e.g. the boolean result of an unsubscribe
+                        reader.skipValue();
+                    }
+                    break;
+                case 2:
+                    frame.error = JsonAdapterRegistry.getErrorAdapter().fromJson(reader);
+                    break;
+                case 3:
+                    frame.method = reader.nextString();
+                    break;
+                case 4:
+                    if (frame.method != null) {
+                        readParams(reader, frame);
+                    } else {
+                        pendingParams = new Buffer();
+                        try (BufferedSource params = reader.nextSource()) {
+                            params.readAll(pendingParams);
+                        }
+                    }
+                    break;
+                default:
+                    reader.skipName();
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (pendingParams != null && frame.method != null) {
+            try (JsonReader params = JsonReader.of(pendingParams)) {
+                readParams(params, frame);
+            }
+        }
+        return frame;
+    }
+
+    private void readParams(JsonReader reader, Frame frame) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(PARAMS_NAMES)) {
+                case 0:
+                    frame.notification = readResult(reader, frame);
+                    break;
+                case 1:
+                    frame.subscription = reader.nextLong();
+                    break;
+                default:
+                    reader.skipName();
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private Object readResult(JsonReader reader, Frame frame) throws IOException {
+        long slot = 0;
+        Object notification = null;
+        boolean slotAfterValue = false;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(RESULT_NAMES)) {
+                case 0:
+                    slot = readSlot(reader);
+                    slotAfterValue = notification != null;
+                    break;
+                case 1:
+                    notification = readValue(reader, frame.method, slot);
+                    break;
+                default:
+                    reader.skipName();
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        frame.slot = slot;
+        return slotAfterValue ? withSlot(notification, slot) : notification;
+    }
+
+    private static Object withSlot(Object notification, long slot) {
+        if (notification instanceof AccountNotification) {
+            AccountNotification account = (AccountNotification) notification;
+            return new AccountNotification(slot, account.getLamports(), account.getOwner(), account.isExecutable(),
+                    account.getRentEpoch(), account.getSpace(), account.getData(), account.getEncoding(),
+                    account.getParsedData());
+        } else if (notification instanceof LogsNotification) {
+            LogsNotification logs = (LogsNotification) notification;
+            return new LogsNotification(slot, logs.getSignature(), logs.getError(), logs.getLogs());
+        }
+        return new SignatureNotification(slot, ((SignatureNotification) notification).getError());
+    }
+
+    private long readSlot(JsonReader reader) throws IOException {
+        long slot = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.selectName(CONTEXT_NAMES) == 0) {
+                slot = reader.nextLong();
+            } else {
+                reader.skipName();
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return slot;
+    }
+
+    private Object readValue(JsonReader reader, String method, long slot) throws IOException {
+        if (reader.peek() == JsonReader.Token.NULL) {
+            return reader.nextNull();
+        }
+        switch (method) {
+            case ACCOUNT_NOTIFICATION:
+                return readAccount(reader, slot);
+            case LOGS_NOTIFICATION:
+                return readLogs(reader, slot);
+            case SIGNATURE_NOTIFICATION:
+                if (reader.peek() != JsonReader.Token.BEGIN_OBJECT) {
+                    // "receivedSignature", sent before the transaction is processed
+                    reader.skipValue();
+                    return null;
+                }
+                return readSignature(reader, slot);
+            default:
+                reader.skipValue();
+                return null;
+        }
+    }
+
+    private AccountNotification readAccount(JsonReader reader, long slot) throws IOException {
+        long lamports = 0;
+        String owner = null;
+        boolean executable = false;
+        long rentEpoch = 0;
+        long space = 0;
+        String data = null;
+        String encoding = null;
+        Object parsedData = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(ACCOUNT_NAMES)) {
+                case 0:
+                    lamports = readU64(reader);
+                    break;
+                case 1:
+                    owner = reader.nextString();
+                    break;
+                case 2:
+                    executable = reader.nextBoolean();
+                    break;
+                case 3:
+                    rentEpoch = readU64(reader);
+                    break;
+                case 4:
+                    space = reader.nextLong();
+                    break;
+                case 5:
+                    switch (reader.peek()) {
+                        case BEGIN_ARRAY:
+                            reader.beginArray();
+                            data = reader.nextString();
+                            encoding = reader.hasNext() ? reader.nextString() : null;
+                            while (reader.hasNext()) {
+                                reader.skipValue();
+                            }
+                            reader.endArray();
+                            break;
+                        case STRING:
+                            // legacy binary encoding
+                            data = reader.nextString();
+                            encoding = "base58";
+                            break;
+                        default:
+                            parsedData = reader.readJsonValue();
+                    }
+                    break;
+                default:
+                    reader.skipName();
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new AccountNotification(slot, lamports, owner, executable, rentEpoch, space, data, encoding, parsedData);
+    }
+
+    private LogsNotification readLogs(JsonReader reader, long slot) throws IOException {
+        String signature = null;
+        Object error = null;
+        List<String> logs = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.selectName(LOGS_NAMES)) {
+                case 0:
+                    signature = reader.nextString();
+                    break;
+                case 1:
+                    error = reader.readJsonValue();
+                    break;
+                case 2:
+                    if (reader.peek() == JsonReader.Token.NULL) {
+                        reader.nextNull();
+                        break;
+                    }
+                    logs = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        logs.add(reader.nextString());
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipName();
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new LogsNotification(slot, signature, error, logs);
+    }
+
+    private SignatureNotification readSignature(JsonReader reader, long slot) throws IOException {
+        Object error = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.selectName(SIGNATURE_NAMES) == 0) {
+                error = reader.readJsonValue();
+            } else {
+                reader.skipName();
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new SignatureNotification(slot, error);
+    }
+}
@@ -0,0 +1,298 @@
+package org.p2p.solanaj.ws;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.p2p.solanaj.ws.listeners.NotificationEventListener;
+
+/**
+ * Hands notifications to listeners off the websocket reader thread.
+ *
+ * Each subscription gets its own bounded queue, drained on the executor by at most one task at a time, so a
+ * listener sees its notifications in order and a slow listener only holds up its own subscription. When a queue is
+ * full the {@link OverflowPolicy} decides what gives way.
+ */
+public class NotificationDispatcher {
+
+    public enum OverflowPolicy {
+        /** Drop the oldest queued notification to make room. */
+        DROP_OLDEST,
+        /** Replace the most recently queued notification, so the latest state is always delivered. */
+        COALESCE_LATEST,
+        /** Block the reader thread until the listener catches up, pushing back on the connection. */
+        BLOCK
+    }
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final Logger LOGGER = Logger.getLogger(NotificationDispatcher.class.getName());
+    // notifications one drain task delivers before yielding the thread to other subscriptions
+    private static final int DRAIN_BATCH = 64;
+
+    private static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "solanaj-ws-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Executor executor;
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final Map<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Dispatcher on a shared pool of daemon threads, with queues of {@link #DEFAULT_CAPACITY} dropping the oldest
+     * notification on overflow.
+     */
+    public NotificationDispatcher() {
+        this(DEFAULT_EXECUTOR, DEFAULT_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * @param executor       runs listeners; tasks may block for as long as a listener does
+     * @param capacity       queued notifications per subscription
+     * @param overflowPolicy what to do when a subscription's queue is full
+     */
+    public NotificationDispatcher(Executor executor, int capacity, OverflowPolicy overflowPolicy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.executor = executor;
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Queues a notification for the listener of {@code subscription}. A subscription keeps the listener it was first
+     * dispatched to until it is {@link #remove(long) removed}.
+     */
+    public void dispatch(long subscription, NotificationEventListener listener, Object notification) {
+        Mailbox mailbox = mailboxes.get(subscription);
+        if (mailbox == null) {
+            mailbox = mailboxes.computeIfAbsent(subscription, id -> new Mailbox(id, listener));
+        }
+        mailbox.offer(notification);
+    }
+
+    /**
+     * Queues the last notification of {@code subscription}, e.g. a signature's result, and removes the subscription
+     * once its listener has seen everything queued before and including it.
+     */
+    public void dispatchLast(long subscription, NotificationEventListener listener, Object notification) {
+        dispatch(subscription, listener, notification);
+        Mailbox mailbox = mailboxes.get(subscription);
+        if (mailbox != null) {
+            mailbox.finish();
+        }
+    }
+
+    /**
+     * Forgets a subscription. Notifications already queued for it are discarded and counted as dropped.
+     */
+    public void remove(long subscription) {
+        Mailbox mailbox = mailboxes.remove(subscription);
+        if (mailbox != null) {
+            mailbox.close();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * @return notifications queued for {@code subscription}, waiting for its listener
+     */
+    public int getQueueDepth(long subscription) {
+        Mailbox mailbox = mailboxes.get(subscription);
+        return mailbox == null ? 0 : mailbox.depth();
+    }
+
+    /**
+     * @return notifications queued over all subscriptions
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Mailbox mailbox : mailboxes.values()) {
+            depth += mailbox.depth();
+        }
+        return depth;
+    }
+
+    /**
+     * @return notifications of {@code subscription} dropped or coalesced away since it was first dispatched to
+     */
+    public long getDroppedCount(long subscription) {
+        Mailbox mailbox = mailboxes.get(subscription);
+        return mailbox == null ? 0 : mailbox.droppedCount();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    /**
+     * @return listener calls that threw
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    private final class Mailbox implements Runnable {
+        private final long subscription;
+        private final NotificationEventListener listener;
+        private final ArrayDeque<Object> queue = new ArrayDeque<>();
+        private long droppedCount;
+        // whether a drain task is queued or running
+        private boolean scheduled;
+        private boolean closed;
+        // removed once the queue drains
+        private boolean finishing;
+
+        Mailbox(long subscription, NotificationEventListener listener) {
+            this.subscription = subscription;
+            this.listener = listener;
+        }
+
+        void offer(Object notification) {
+            synchronized (this) {
+                if (closed) {
+                    drop(1);
+                    return;
+                }
+                if (queue.size() >= capacity) {
+                    switch (overflowPolicy) {
+                        case DROP_OLDEST:
+                            queue.pollFirst();
+                            drop(1);
+                            break;
+                        case COALESCE_LATEST:
+                            queue.pollLast();
+                            drop(1);
+                            break;
+                        case BLOCK:
+                            while (queue.size() >= capacity && !closed) {
+                                try {
+                                    wait();
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                    drop(1);
+                                    return;
+                                }
+                            }
+                            if (closed) {
+                                drop(1);
+                                return;
+                            }
+                            break;
+                    }
+                }
+                queue.addLast(notification);
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            schedule();
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < DRAIN_BATCH; i++) {
+                Object notification;
+                synchronized (this) {
+                    notification = queue.pollFirst();
+                    if (notification == null) {
+                        scheduled = false;
+                        if (finishing) {
+                            retire();
+                        }
+                        return;
+                    }
+                    if (overflowPolicy == OverflowPolicy.BLOCK) {
+                        notifyAll();
+                    }
+                }
+
+                try {
+                    listener.onNotificationEvent(notification);
+                    delivered.increment();
+                } catch (RuntimeException e) {
+                    failed.increment();
+                    LOGGER.log(Level.WARNING, "Notification listener failed", e);
+                }
+            }
+            // more may be queued; go to the back of the executor's queue
+            schedule();
+        }
+
+        private void schedule() {
+            try {
+                executor.execute(this);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    scheduled = false;
+                    drop(queue.size());
+                    queue.clear();
+                    notifyAll();
+                    if (finishing) {
+                        retire();
+                    }
+                }
+                LOGGER.log(Level.WARNING, "Notification executor rejected a drain task", e);
+            }
+        }
+
+        synchronized void finish() {
+            finishing = true;
+            if (!scheduled) {
+                retire();
+            }
+        }
+
+        // callers hold the mailbox lock
+        private void retire() {
+            closed = true;
+            mailboxes.remove(subscription, this);
+        }
+
+        synchronized void close() {
+            closed = true;
+            drop(queue.size());
+            queue.clear();
+            notifyAll();
+        }
+
+        synchronized int depth() {
+            return queue.size();
+        }
+
+        synchronized long droppedCount() {
+            return droppedCount;
+        }
+
+        // callers hold the mailbox lock
+        private void drop(int count) {
+            droppedCount += count;
+            dropped.add(count);
+        }
+    }
+}
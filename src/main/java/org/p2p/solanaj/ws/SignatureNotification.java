@@ -1,12 +1,22 @@
 package org.p2p.solanaj.ws;
 
 public class SignatureNotification {
+    private long slot;
     private Object error;
 
     public SignatureNotification(Object error) {
         this.error = error;
     }
 
+    public SignatureNotification(long slot, Object error) {
+        this.slot = slot;
+        this.error = error;
+    }
+
+    public long getSlot() {
+        return slot;
+    }
+
     public Object getError() {
         return error;
     }
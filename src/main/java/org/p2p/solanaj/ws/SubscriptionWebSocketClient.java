@@ -6,25 +6,38 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.squareup.moshi.JsonAdapter;
-import com.squareup.moshi.Moshi;
-import com.squareup.moshi.Types;
 
 import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
 import org.java_websocket.handshake.ServerHandshake;
-import org.p2p.solanaj.rpc.types.RpcNotificationResult;
+import org.p2p.solanaj.rpc.JsonAdapterRegistry;
 import org.p2p.solanaj.rpc.types.RpcRequest;
-import org.p2p.solanaj.rpc.types.RpcResponse;
 import org.p2p.solanaj.rpc.types.config.Commitment;
 import org.p2p.solanaj.ws.listeners.NotificationEventListener;
+import org.p2p.solanaj.ws.listeners.SubscriptionGapListener;
 
 public class SubscriptionWebSocketClient extends WebSocketClient {
 
     private class SubscriptionParams {
         RpcRequest request;
         NotificationEventListener listener;
+        // stable across reconnects, unlike the node's subscription id; notifications are dispatched under it
+        final long key = nextSubscriptionKey.incrementAndGet();
+        volatile long lastSlot;
+        // set on disconnect, cleared by the first notification after resubscribing
+        volatile boolean gapPending;
+        // set by unsubscribe; a notification dispatched meanwhile is taken back
+        volatile boolean cancelled;
 
         SubscriptionParams(RpcRequest request, NotificationEventListener listener) {
             this.request = request;
@@ -32,10 +45,40 @@ public class SubscriptionWebSocketClient extends WebSocketClient {
         }
     }
 
+    /** Seconds between pings; the connection is dropped when no pong comes back in time. */
+    public static final int DEFAULT_CONNECTION_LOST_TIMEOUT = 30;
+
+    private static final Logger LOGGER = Logger.getLogger(SubscriptionWebSocketClient.class.getName());
+    private static final NotificationDecoder DECODER = new NotificationDecoder();
+    private static final ScheduledExecutorService RECONNECT_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "solanaj-ws-reconnect");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    // subscribe requests waiting for the node to answer with a subscription id
     private Map<String, SubscriptionParams> subscriptions = new ConcurrentHashMap<>();
+    // every live subscription made on this client, replayed after a reconnect
+    private Map<String, SubscriptionParams> activeSubscriptions = new ConcurrentHashMap<>();
     private Map<String, Long> subscriptionIds = new ConcurrentHashMap<>();
-    private Map<Long, NotificationEventListener> subscriptionListeners = new ConcurrentHashMap<>();
-    private static final Logger LOGGER = Logger.getLogger(SubscriptionWebSocketClient.class.getName());
+    private Map<Long, SubscriptionParams> subscriptionListeners = new ConcurrentHashMap<>();
+    // unsubscribed before the node answered; unsubscribed on the node once the answer arrives
+    private Map<String, SubscriptionParams> cancelledSubscriptions = new ConcurrentHashMap<>();
+    // guards sending subscribe requests, so a subscribe racing with onOpen's replay is sent once
+    private final Object subscribeLock = new Object();
+    private boolean connected;
+    private final AtomicLong nextSubscriptionKey = new AtomicLong();
+    private volatile NotificationDispatcher dispatcher = new NotificationDispatcher();
+    private volatile SubscriptionGapListener gapListener;
+
+    private volatile boolean autoReconnect = true;
+    private volatile long reconnectInitialDelayMillis = 500;
+    private volatile long reconnectMaxDelayMillis = 30_000;
+    private final AtomicInteger reconnectAttempts = new AtomicInteger();
+    private volatile boolean closedByUser;
+    // thread running reconnect(), whose internal close must not count as the user's
+    private volatile Thread reconnectThread;
 
     public static SubscriptionWebSocketClient getExactPathInstance(String endpoint) {
         URI serverURI;
@@ -79,129 +122,343 @@ public class SubscriptionWebSocketClient extends WebSocketClient {
 
     public SubscriptionWebSocketClient(URI serverURI) {
         super(serverURI);
+        setConnectionLostTimeout(DEFAULT_CONNECTION_LOST_TIMEOUT);
+    }
+
+    /**
+     * Replaces the dispatcher handing notifications to listeners, e.g. to pick the executor, queue capacity or
+     * overflow policy. Set it before subscribing. Notifications are dispatched under client-side subscription keys
+     * that survive reconnects, not under the node's subscription ids.
+     */
+    public void setNotificationDispatcher(NotificationDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * @return the dispatcher, for its queue depth and drop counters
+     */
+    public NotificationDispatcher getNotificationDispatcher() {
+        return dispatcher;
+    }
 
+    /**
+     * Whether to reconnect and replay every subscription when the connection drops, true by default. A connection
+     * closed with {@link #close()} stays closed.
+     */
+    public void setAutoReconnect(boolean autoReconnect) {
+        this.autoReconnect = autoReconnect;
     }
 
-    public void accountSubscribe(String key, NotificationEventListener listener) {
+    /**
+     * Sets the reconnect backoff. The n-th attempt in a row waits a random time between half and all of
+     * {@code min(maxDelayMillis, initialDelayMillis * 2^n)}, so clients dropped together do not reconnect together.
+     */
+    public void setReconnectBackoff(long initialDelayMillis, long maxDelayMillis) {
+        if (initialDelayMillis < 1 || maxDelayMillis < initialDelayMillis) {
+            throw new IllegalArgumentException("Invalid reconnect backoff");
+        }
+        this.reconnectInitialDelayMillis = initialDelayMillis;
+        this.reconnectMaxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Called on the websocket thread when a subscription resumes after a reconnect; keep it short.
+     */
+    public void setGapListener(SubscriptionGapListener gapListener) {
+        this.gapListener = gapListener;
+    }
+
+    /**
+     * @return the id to pass to {@link #unsubscribe(String)}
+     */
+    public String accountSubscribe(String key, NotificationEventListener listener) {
         List<Object> params = new ArrayList<>();
         params.add(key);
         params.add(Map.of("encoding", "jsonParsed", "commitment", Commitment.PROCESSED.getValue()));
 
         RpcRequest rpcRequest = new RpcRequest("accountSubscribe", params);
 
-        subscriptions.put(rpcRequest.getId(), new SubscriptionParams(rpcRequest, listener));
-        subscriptionIds.put(rpcRequest.getId(), 0L);
-
-        updateSubscriptions();
+        return subscribe(rpcRequest, listener);
     }
 
-    public void signatureSubscribe(String signature, NotificationEventListener listener) {
+    /**
+     * The subscription ends by itself after the signature's result is delivered.
+     * @return the id to pass to {@link #unsubscribe(String)}
+     */
+    public String signatureSubscribe(String signature, NotificationEventListener listener) {
         List<Object> params = new ArrayList<Object>();
         params.add(signature);
 
         RpcRequest rpcRequest = new RpcRequest("signatureSubscribe", params);
 
-        subscriptions.put(rpcRequest.getId(), new SubscriptionParams(rpcRequest, listener));
-        subscriptionIds.put(rpcRequest.getId(), 0L);
-
-        updateSubscriptions();
+        return subscribe(rpcRequest, listener);
     }
 
-    public void logsSubscribe(String mention, NotificationEventListener listener) {
+    /**
+     * @return the id to pass to {@link #unsubscribe(String)}
+     */
+    public String logsSubscribe(String mention, NotificationEventListener listener) {
         List<Object> params = new ArrayList<Object>();
         params.add(Map.of("mentions", List.of(mention)));
         params.add(Map.of("commitment", "finalized"));
 
         RpcRequest rpcRequest = new RpcRequest("logsSubscribe", params);
 
-        subscriptions.put(rpcRequest.getId(), new SubscriptionParams(rpcRequest, listener));
-        subscriptionIds.put(rpcRequest.getId(), 0L);
-
-        updateSubscriptions();
+        return subscribe(rpcRequest, listener);
     }
 
-    public void logsSubscribe(List<String> mentions, NotificationEventListener listener) {
+    /**
+     * @return the id to pass to {@link #unsubscribe(String)}
+     */
+    public String logsSubscribe(List<String> mentions, NotificationEventListener listener) {
         List<Object> params = new ArrayList<Object>();
         params.add(Map.of("mentions", mentions));
         params.add(Map.of("commitment", "finalized"));
 
         RpcRequest rpcRequest = new RpcRequest("logsSubscribe", params);
 
-        subscriptions.put(rpcRequest.getId(), new SubscriptionParams(rpcRequest, listener));
-        subscriptionIds.put(rpcRequest.getId(), null);
-
-        updateSubscriptions();
+        return subscribe(rpcRequest, listener);
     }
 
     @Override
     public void onOpen(ServerHandshake handshakedata) {
         LOGGER.info("Websocket connection opened");
-        updateSubscriptions();
+        reconnectAttempts.set(0);
+
+        // every subscription still pending was queued while disconnected
+        synchronized (subscribeLock) {
+            connected = true;
+            for (SubscriptionParams params : subscriptions.values()) {
+                send(params.request);
+            }
+        }
     }
 
-    @SuppressWarnings({ "rawtypes" })
     @Override
     public void onMessage(String message) {
-        JsonAdapter<RpcResponse<Long>> resultAdapter = new Moshi.Builder().build()
-                .adapter(Types.newParameterizedType(RpcResponse.class, Long.class));
-
         try {
-            RpcResponse<Long> rpcResult = resultAdapter.fromJson(message);
-            String rpcResultId = rpcResult.getId();
-            if (rpcResultId != null) {
-                if (subscriptionIds.containsKey(rpcResultId)) {
-                    try {
-                        subscriptionIds.put(rpcResultId, rpcResult.getResult());
-                        subscriptionListeners.put(rpcResult.getResult(), subscriptions.get(rpcResultId).listener);
-                        subscriptions.remove(rpcResultId);
-                    } catch (NullPointerException ignored) {
-
+            NotificationDecoder.Frame frame = DECODER.decode(message);
+            if (frame.isNotification()) {
+                SubscriptionParams params = subscriptionListeners.get(frame.getSubscription());
+                if (params != null && frame.getNotification() != null) {
+                    if (params.gapPending) {
+                        params.gapPending = false;
+                        SubscriptionGapListener gapListener = this.gapListener;
+                        if (gapListener != null) {
+                            gapListener.onGap(params.request, params.lastSlot, frame.getSlot());
+                        }
+                    }
+                    params.lastSlot = frame.getSlot();
+                    if (NotificationDecoder.SIGNATURE_NOTIFICATION.equals(frame.getMethod())) {
+                        // the node drops a signature subscription after its result; so do we
+                        forget(params.request.getId());
+                        dispatcher.dispatchLast(params.key, params.listener, frame.getNotification());
+                    } else {
+                        dispatcher.dispatch(params.key, params.listener, frame.getNotification());
+                    }
+                    if (params.cancelled) {
+                        dispatcher.remove(params.key);
                     }
                 }
-            } else {
-                JsonAdapter<RpcNotificationResult> notificationResultAdapter = new Moshi.Builder().build()
-                        .adapter(RpcNotificationResult.class);
-                RpcNotificationResult result = notificationResultAdapter.fromJson(message);
-                NotificationEventListener listener = subscriptionListeners.get(result.getParams().getSubscription());
-
-                Map value = (Map) result.getParams().getResult().getValue();
-
-                switch (result.getMethod()) {
-                    case "signatureNotification":
-                        listener.onNotificationEvent(new SignatureNotification(value.get("err")));
-                        break;
-                    case "accountNotification":
-                    case "logsNotification":
-                        if (listener != null) {
-                            listener.onNotificationEvent(value);
-                        }
-                        break;
+            } else if (frame.getId() != null && frame.getError() != null) {
+                // a rejected subscribe would be resent forever; drop it
+                SubscriptionParams params = subscriptions.remove(frame.getId());
+                if (params == null) {
+                    params = cancelledSubscriptions.remove(frame.getId());
+                }
+                if (params != null) {
+                    LOGGER.warning("Subscription rejected: " + frame.getError() + ", request: " + params.request);
+                    forget(frame.getId());
+                    dispatcher.remove(params.key);
                 }
+            } else if (frame.getId() != null && frame.getResult() != null) {
+                onSubscribed(frame.getId(), frame.getResult());
             }
         } catch (Exception ex) {
-            ex.printStackTrace();
+            LOGGER.log(Level.WARNING, "Unable to handle websocket message", ex);
         }
     }
 
     @Override
     public void onClose(int code, String reason, boolean remote) {
-        System.out.println(
-                "Connection closed by " + (remote ? "remote peer" : "us") + " Code: " + code + " Reason: " + reason);
+        LOGGER.info("Connection closed by " + (remote ? "remote peer" : "us") + " Code: " + code + " Reason: "
+                + reason);
 
+        // the node's subscription ids die with the connection; replay every subscription on the next one
+        for (SubscriptionParams params : subscriptionListeners.values()) {
+            params.gapPending = true;
+        }
+        synchronized (subscribeLock) {
+            connected = false;
+            subscriptionListeners.clear();
+            // their subscriptions died with the connection too
+            cancelledSubscriptions.clear();
+            for (SubscriptionParams params : activeSubscriptions.values()) {
+                subscriptions.put(params.request.getId(), params);
+                subscriptionIds.put(params.request.getId(), 0L);
+            }
+        }
+
+        if (autoReconnect && !closedByUser) {
+            scheduleReconnect();
+        }
     }
 
     @Override
     public void onError(Exception ex) {
-        ex.printStackTrace();
+        LOGGER.log(Level.WARNING, "Websocket error", ex);
     }
 
-    private void updateSubscriptions() {
-        if (isOpen() && subscriptions.size() > 0) {
-            JsonAdapter<RpcRequest> rpcRequestJsonAdapter = new Moshi.Builder().build().adapter(RpcRequest.class);
+    @Override
+    public void connect() {
+        if (Thread.currentThread() != reconnectThread) {
+            closedByUser = false;
+        }
+        super.connect();
+    }
+
+    @Override
+    public void close() {
+        markClosedByUser();
+        super.close();
+    }
 
-            for (SubscriptionParams sub : subscriptions.values()) {
-                send(rpcRequestJsonAdapter.toJson(sub.request));
+    @Override
+    public void close(int code) {
+        markClosedByUser();
+        super.close(code);
+    }
+
+    @Override
+    public void close(int code, String message) {
+        markClosedByUser();
+        super.close(code, message);
+    }
+
+    private void markClosedByUser() {
+        if (Thread.currentThread() != reconnectThread) {
+            closedByUser = true;
+        }
+    }
+
+    private void scheduleReconnect() {
+        int attempt = reconnectAttempts.getAndIncrement();
+        long ceiling = Math.min(reconnectMaxDelayMillis, reconnectInitialDelayMillis << Math.min(attempt, 30));
+        long delay = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+        LOGGER.info("Reconnecting in " + delay + " ms, attempt " + (attempt + 1));
+
+        RECONNECT_SCHEDULER.schedule(() -> {
+            if (closedByUser) {
+                return;
             }
+            reconnectThread = Thread.currentThread();
+            try {
+                reconnect();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Reconnect failed", e);
+                scheduleReconnect();
+            } finally {
+                reconnectThread = null;
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ends a subscription; it is no longer notified or replayed after a reconnect. A subscription the node has not
+     * answered yet is unsubscribed on the node once the answer arrives. A notification already being delivered may
+     * still reach the listener.
+     * @param subscriptionId the id returned when subscribing
+     */
+    public void unsubscribe(String subscriptionId) {
+        SubscriptionParams params = activeSubscriptions.remove(subscriptionId);
+        if (params == null) {
+            return;
+        }
+        params.cancelled = true;
+        dispatcher.remove(params.key);
+
+        // tombstone first, so an answer that loses the race below finds it
+        cancelledSubscriptions.put(subscriptionId, params);
+        if (subscriptions.remove(subscriptionId) != null) {
+            subscriptionIds.remove(subscriptionId);
+            return;
+        }
+
+        // answered, or the answer is being handled; whoever removes the node's id unsubscribes on the node
+        cancelledSubscriptions.remove(subscriptionId);
+        Long nodeSubscriptionId = subscriptionIds.remove(subscriptionId);
+        if (nodeSubscriptionId != null && nodeSubscriptionId != 0) {
+            subscriptionListeners.remove(nodeSubscriptionId);
+            sendUnsubscribe(params, nodeSubscriptionId);
+        }
+    }
+
+    private String subscribe(RpcRequest rpcRequest, NotificationEventListener listener) {
+        SubscriptionParams params = new SubscriptionParams(rpcRequest, listener);
+        synchronized (subscribeLock) {
+            activeSubscriptions.put(rpcRequest.getId(), params);
+            subscriptions.put(rpcRequest.getId(), params);
+            subscriptionIds.put(rpcRequest.getId(), 0L);
+            // otherwise onOpen sends it
+            if (connected) {
+                send(params.request);
+            }
+        }
+        return rpcRequest.getId();
+    }
+
+    // handles the node's answer to a subscribe request
+    private void onSubscribed(String subscriptionId, long nodeSubscriptionId) {
+        // removing the pending request is the only gate; a late or repeated answer finds nothing
+        SubscriptionParams params = subscriptions.remove(subscriptionId);
+        if (params == null) {
+            SubscriptionParams cancelled = cancelledSubscriptions.remove(subscriptionId);
+            if (cancelled != null) {
+                sendUnsubscribe(cancelled, nodeSubscriptionId);
+            }
+            return;
+        }
+
+        subscriptionIds.put(subscriptionId, nodeSubscriptionId);
+        subscriptionListeners.put(nodeSubscriptionId, params);
+        // unsubscribed while this answer was being handled
+        if (!activeSubscriptions.containsKey(subscriptionId)
+                && subscriptionIds.remove(subscriptionId, nodeSubscriptionId)) {
+            subscriptionListeners.remove(nodeSubscriptionId);
+            sendUnsubscribe(params, nodeSubscriptionId);
+        }
+    }
+
+    /**
+     * @return the node's id for a subscription, 0 while its subscribe is unanswered, or null if it is not active
+     */
+    Long getNodeSubscriptionId(String subscriptionId) {
+        return subscriptionIds.get(subscriptionId);
+    }
+
+    // drops a subscription from every map; returns the node's id for it, 0 while the subscribe is unanswered
+    private Long forget(String subscriptionId) {
+        activeSubscriptions.remove(subscriptionId);
+        subscriptions.remove(subscriptionId);
+        Long nodeSubscriptionId = subscriptionIds.remove(subscriptionId);
+        if (nodeSubscriptionId != null) {
+            subscriptionListeners.remove(nodeSubscriptionId);
+        }
+        return nodeSubscriptionId;
+    }
+
+    private void sendUnsubscribe(SubscriptionParams params, long nodeSubscriptionId) {
+        String method = params.request.getMethod().replace("Subscribe", "Unsubscribe");
+        send(new RpcRequest(method, List.of(nodeSubscriptionId)));
+    }
+
+    private void send(RpcRequest rpcRequest) {
+        JsonAdapter<RpcRequest> rpcRequestJsonAdapter = JsonAdapterRegistry.getRequestAdapter();
+        try {
+            send(rpcRequestJsonAdapter.toJson(rpcRequest));
+        } catch (WebsocketNotConnectedException e) {
+            // subscribes are replayed on the next connection; the node forgets subscriptions on its own
+            LOGGER.fine("Not connected, unable to send " + rpcRequest.getMethod());
         }
     }
 
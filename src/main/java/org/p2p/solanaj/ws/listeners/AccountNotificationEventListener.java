@@ -7,10 +7,9 @@ public class AccountNotificationEventListener implements NotificationEventListen
     private static final Logger LOGGER = Logger.getLogger(AccountNotificationEventListener.class.getName());
 
     /**
-     * Handle Account notification event (change in data or change in lamports). Type of "data" is a Map.
-     * @param data Map
+     * Handle Account notification event (change in data or change in lamports).
+     * @param data AccountNotification
      */
-    @SuppressWarnings("rawtypes")
     @Override
     public void onNotificationEvent(Object data) {
         LOGGER.info("Raw = " + data);
@@ -2,8 +2,8 @@ package org.p2p.solanaj.ws.listeners;
 
 import org.p2p.solanaj.core.PublicKey;
 import org.p2p.solanaj.rpc.RpcClient;
+import org.p2p.solanaj.ws.LogsNotification;
 
-import java.util.AbstractMap;
 import java.util.logging.Logger;
 
 public class LogNotificationEventListener implements NotificationEventListener {
@@ -18,17 +18,15 @@ public class LogNotificationEventListener implements NotificationEventListener {
     }
 
     /**
-     * Handle Account notification event (change in data or change in lamports). Type of "data" is a Map.
-     * @param data Map
+     * Handle Logs notification event (a transaction mentioning the account).
+     * @param data LogsNotification
      */
-    @SuppressWarnings("rawtypes")
     @Override
     public void onNotificationEvent(Object data) {
         if (data != null) {
-            AbstractMap<String, String> map = (AbstractMap<String, String>) data;
-            LOGGER.info(String.format("Data = %s", map));
-            String signature = map.get("signature");
-            LOGGER.info("Signature = " + signature);
+            LogsNotification logs = (LogsNotification) data;
+            LOGGER.info(String.format("Data = %s", logs));
+            LOGGER.info("Signature = " + logs.getSignature());
         }
     }
 }
@@ -1,5 +1,9 @@
 package org.p2p.solanaj.ws.listeners;
 
 public interface NotificationEventListener {
+    /**
+     * @param data an {@link org.p2p.solanaj.ws.AccountNotification}, {@link org.p2p.solanaj.ws.LogsNotification}
+     *             or {@link org.p2p.solanaj.ws.SignatureNotification}, depending on the subscription
+     */
     void onNotificationEvent(Object data);
 }
@@ -0,0 +1,14 @@
+package org.p2p.solanaj.ws.listeners;
+
+import org.p2p.solanaj.rpc.types.RpcRequest;
+
+public interface SubscriptionGapListener {
+    /**
+     * Called once for each subscription restored after a reconnect, with its first notification since. Notifications
+     * for slots in between may have been missed and should be backfilled over RPC.
+     * @param subscription the subscribe request that was replayed
+     * @param lastSlot     slot of the last notification before the disconnect, or 0 if there was none
+     * @param resumedSlot  slot of the first notification after the reconnect
+     */
+    void onGap(RpcRequest subscription, long lastSlot, long resumedSlot);
+}
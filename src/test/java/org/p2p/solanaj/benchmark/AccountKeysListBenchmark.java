@@ -0,0 +1,61 @@
+package org.p2p.solanaj.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.core.AccountKeysList;
+import org.p2p.solanaj.core.AccountMeta;
+
+/**
+ * Builds the account table of a 64-account message, with each account referenced by two instructions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountKeysListBenchmark {
+
+    private static final int ACCOUNTS = 64;
+
+    private final List<AccountMeta> metas = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            metas.add(new AccountMeta(new Account().getPublicKey(), i % 16 == 0, i % 3 != 0));
+        }
+        // the same accounts again, as a second instruction would reference them
+        for (int i = 0; i < ACCOUNTS; i++) {
+            AccountMeta meta = metas.get(i);
+            metas.add(new AccountMeta(meta.getPublicKey(), meta.isSigner(), true));
+        }
+    }
+
+    @Benchmark
+    public List<AccountMeta> addAndList() {
+        AccountKeysList accountKeysList = new AccountKeysList();
+        accountKeysList.addAll(metas);
+        return accountKeysList.getList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AccountKeysListBenchmark.class.getSimpleName()).build()).run();
+    }
+}
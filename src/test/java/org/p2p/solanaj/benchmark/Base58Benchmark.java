@@ -0,0 +1,115 @@
+package org.p2p.solanaj.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.p2p.solanaj.utils.Base58;
+
+/**
+ * Encodes and decodes 32-byte keys and 64-byte signatures with bitcoinj's Base58 and with
+ * {@link org.p2p.solanaj.utils.Base58}, including its buffer variants.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Base58Benchmark {
+
+    private final byte[] key = new byte[32];
+    private final byte[] signature = new byte[64];
+    private String encodedKey;
+    private String encodedSignature;
+
+    private final char[] chars = new char[Base58.maxEncodedLength(64)];
+    private final byte[] bytes = new byte[64];
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        random.nextBytes(key);
+        random.nextBytes(signature);
+        encodedKey = Base58.encode(key);
+        encodedSignature = Base58.encode(signature);
+    }
+
+    @Benchmark
+    public String bitcoinjEncodeKey() {
+        return org.bitcoinj.core.Base58.encode(key);
+    }
+
+    @Benchmark
+    public String encodeKey() {
+        return Base58.encode(key);
+    }
+
+    @Benchmark
+    public int encodeKeyIntoChars() {
+        return Base58.encode(key, 0, key.length, chars, 0);
+    }
+
+    @Benchmark
+    public String bitcoinjEncodeSignature() {
+        return org.bitcoinj.core.Base58.encode(signature);
+    }
+
+    @Benchmark
+    public String encodeSignature() {
+        return Base58.encode(signature);
+    }
+
+    @Benchmark
+    public int encodeSignatureIntoChars() {
+        return Base58.encode(signature, 0, signature.length, chars, 0);
+    }
+
+    @Benchmark
+    public byte[] bitcoinjDecodeKey() {
+        return org.bitcoinj.core.Base58.decode(encodedKey);
+    }
+
+    @Benchmark
+    public byte[] decodeKey() {
+        return Base58.decode(encodedKey);
+    }
+
+    @Benchmark
+    public byte[] decodeKeyIntoBuffer() {
+        Base58.decode(encodedKey, bytes, 0, 32);
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] bitcoinjDecodeSignature() {
+        return org.bitcoinj.core.Base58.decode(encodedSignature);
+    }
+
+    @Benchmark
+    public byte[] decodeSignature() {
+        return Base58.decode(encodedSignature);
+    }
+
+    @Benchmark
+    public byte[] decodeSignatureIntoBuffer() {
+        Base58.decode(encodedSignature, bytes, 0, 64);
+        return bytes;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(Base58Benchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,92 @@
+package org.p2p.solanaj.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.p2p.solanaj.utils.Ed25519BatchVerifier;
+import org.p2p.solanaj.utils.Ed25519Signer;
+import org.p2p.solanaj.utils.TweetNaclFast;
+
+/**
+ * Verified signatures per second for 256 valid signatures: one detached_verify at a time versus the batch verifier
+ * at increasing parallelism.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchVerifyBenchmark {
+
+    private static final int SIGNATURES = 256;
+
+    @Param({ "1", "4" })
+    private int parallelism;
+
+    private final List<byte[]> messages = new ArrayList<>();
+    private final List<byte[]> signatures = new ArrayList<>();
+    private final List<byte[]> publicKeys = new ArrayList<>();
+    private ForkJoinPool pool;
+    private Ed25519BatchVerifier verifier;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        for (int i = 0; i < SIGNATURES; i++) {
+            TweetNaclFast.Signature.KeyPair keyPair = TweetNaclFast.Signature.keyPair();
+            byte[] message = new byte[215];
+            random.nextBytes(message);
+            messages.add(message);
+            signatures.add(new Ed25519Signer(keyPair.getSecretKey()).sign(message));
+            publicKeys.add(keyPair.getPublicKey());
+        }
+        pool = new ForkJoinPool(parallelism);
+        verifier = new Ed25519BatchVerifier(pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIGNATURES)
+    public boolean oneAtATime() {
+        boolean valid = true;
+        for (int i = 0; i < SIGNATURES; i++) {
+            valid &= new TweetNaclFast.Signature(publicKeys.get(i), new byte[0])
+                    .detached_verify(messages.get(i), signatures.get(i));
+        }
+        return valid;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIGNATURES)
+    public boolean batch() {
+        return verifier.verifyAll(messages, signatures, publicKeys);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BatchVerifyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,60 @@
+package org.p2p.solanaj.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.core.Transaction;
+import org.p2p.solanaj.programs.SystemProgram;
+
+/**
+ * Compiles a message made of {@code instructions} transfers to distinct recipients. Goes through
+ * {@link Transaction#compileMessage(PublicKey)}, which serializes the message and reads the signer keys back.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageSerializeBenchmark {
+
+    @Param({ "1", "8", "32" })
+    public int instructions;
+
+    private Transaction transaction;
+    private PublicKey feePayer;
+
+    @Setup
+    public void setup() {
+        feePayer = new Account().getPublicKey();
+        transaction = new Transaction();
+        for (int i = 0; i < instructions; i++) {
+            transaction.addInstruction(SystemProgram.transfer(feePayer, new Account().getPublicKey(), 1000 + i));
+        }
+        transaction.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return transaction.compileMessage(feePayer);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MessageSerializeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
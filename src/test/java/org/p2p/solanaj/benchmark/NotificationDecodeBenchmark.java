@@ -0,0 +1,64 @@
+package org.p2p.solanaj.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.squareup.moshi.JsonAdapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.p2p.solanaj.rpc.JsonAdapterRegistry;
+import org.p2p.solanaj.rpc.types.RpcNotificationResult;
+import org.p2p.solanaj.rpc.types.RpcResponse;
+import org.p2p.solanaj.ws.NotificationDecoder;
+
+/**
+ * Compares the old two-pass handling of an accountNotification (as a response, then as a notification into a map)
+ * with {@link NotificationDecoder}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationDecodeBenchmark {
+
+    private static final String NOTIFICATION = "{\"jsonrpc\":\"2.0\",\"method\":\"accountNotification\","
+            + "\"params\":{\"result\":{\"context\":{\"slot\":95226425},\"value\":{\"data\":"
+            + "[\"O0H7Gq3nCUe3iMD6iT9iTTr6kz8dSw7tTbbMAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA\",\"base64\"],"
+            + "\"executable\":false,\"lamports\":2039280,\"owner\":\"TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA\","
+            + "\"rentEpoch\":18446744073709551615,\"space\":165}},\"subscription\":23784}}";
+
+    private final NotificationDecoder decoder = new NotificationDecoder();
+
+    @Benchmark
+    public Object twoPass() throws IOException {
+        JsonAdapter<RpcResponse<Long>> resultAdapter = JsonAdapterRegistry.getResponseAdapter(Long.class);
+        RpcResponse<Long> response = resultAdapter.fromJson(NOTIFICATION);
+        if (response.getId() != null) {
+            return response;
+        }
+        return JsonAdapterRegistry.getNotificationAdapter().fromJson(NOTIFICATION).getParams().getResult()
+                .getValue();
+    }
+
+    @Benchmark
+    public Object singlePass() throws IOException {
+        return decoder.decode(NOTIFICATION).getNotification();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NotificationDecodeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
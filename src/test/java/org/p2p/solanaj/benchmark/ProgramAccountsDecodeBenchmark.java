@@ -0,0 +1,85 @@
+package org.p2p.solanaj.benchmark;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Types;
+
+import okio.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.p2p.solanaj.rpc.JsonAdapterRegistry;
+import org.p2p.solanaj.rpc.types.ProgramAccount;
+import org.p2p.solanaj.rpc.types.RpcResponse;
+
+/**
+ * Decodes a 100k-account getProgramAccounts response, comparing the old untyped Map decoding with the typed
+ * {@link org.p2p.solanaj.rpc.types.ProgramAccountJsonAdapter}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx4g" })
+@State(Scope.Benchmark)
+public class ProgramAccountsDecodeBenchmark {
+
+    private static final int ACCOUNTS = 100_000;
+
+    private byte[] response;
+
+    @Setup
+    public void setup() {
+        StringBuilder json = new StringBuilder("{\"jsonrpc\":\"2.0\",\"result\":[");
+        for (int i = 0; i < ACCOUNTS; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"account\":{\"data\":[\"AQAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=\",")
+                    .append("\"base64\"],\"executable\":false,\"lamports\":").append(2039280L + i)
+                    .append(",\"owner\":\"TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA\",\"rentEpoch\":361},")
+                    .append("\"pubkey\":\"4Nd1mBQtrMJVYVfKf2PJy9NZUZdTAsp7D4xWLs4gDB4T\"}");
+        }
+        json.append("],\"id\":\"1\"}");
+        response = json.toString().getBytes();
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    @Benchmark
+    public List<ProgramAccount> untypedMaps() throws IOException {
+        JsonAdapter<RpcResponse<List>> adapter = JsonAdapterRegistry.getResponseAdapter(List.class);
+        List<AbstractMap> rawResult = adapter.fromJson(new Buffer().write(response)).getResult();
+
+        List<ProgramAccount> result = new ArrayList<>();
+        for (AbstractMap item : rawResult) {
+            result.add(new ProgramAccount(item));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ProgramAccount> typedAdapter() throws IOException {
+        JsonAdapter<RpcResponse<List<ProgramAccount>>> adapter = JsonAdapterRegistry.getResponseAdapter(
+                Types.newParameterizedType(List.class, ProgramAccount.class));
+        return adapter.fromJson(new Buffer().write(response)).getResult();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ProgramAccountsDecodeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
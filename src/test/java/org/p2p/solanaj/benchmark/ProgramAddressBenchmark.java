@@ -0,0 +1,78 @@
+package org.p2p.solanaj.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.core.ProgramAddressDeriver;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.utils.TweetNaclFast;
+
+/**
+ * The curve check behind every program address candidate, and associated token address derivation one at a time
+ * and in bulk.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProgramAddressBenchmark {
+
+    private static final int OWNERS = 1000;
+
+    private final byte[] candidate = new byte[32];
+    private final PublicKey mint = new PublicKey("EPjFWdd5AufqSSqeM2qN1xzybapC8G4wEGGkZwyTDt1v");
+    private final List<PublicKey> owners = new ArrayList<>();
+    private final List<PublicKey> mints = new ArrayList<>();
+    private final ProgramAddressDeriver deriver = new ProgramAddressDeriver();
+
+    @Setup
+    public void setup() {
+        new Random(1).nextBytes(candidate);
+        for (int i = 0; i < OWNERS; i++) {
+            owners.add(new Account().getPublicKey());
+            mints.add(mint);
+        }
+    }
+
+    @Benchmark
+    public int onCurveSquareRoot() {
+        return TweetNaclFast.is_on_curve(candidate);
+    }
+
+    @Benchmark
+    public int onCurveJacobi() {
+        return TweetNaclFast.is_on_curve_fast(candidate);
+    }
+
+    @Benchmark
+    public PublicKey associatedTokenAddress() {
+        return ProgramAddressDeriver.findAssociatedTokenAddress(owners.get(0), mint);
+    }
+
+    @Benchmark
+    public List<PublicKey> associatedTokenAddressesBulk() {
+        return deriver.findAssociatedTokenAddresses(owners, mints);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ProgramAddressBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,59 @@
+package org.p2p.solanaj.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.Moshi;
+import com.squareup.moshi.Types;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.p2p.solanaj.rpc.JsonAdapterRegistry;
+import org.p2p.solanaj.rpc.types.AccountInfo;
+import org.p2p.solanaj.rpc.types.RpcResponse;
+
+/**
+ * Compares building Moshi adapters per call (the old {@code RpcClient.call} behaviour) with the shared
+ * {@link JsonAdapterRegistry}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RpcAdapterBenchmark {
+
+    private static final String RESPONSE = "{\"jsonrpc\":\"2.0\",\"result\":{\"context\":{\"slot\":95226425},"
+            + "\"value\":{\"data\":[\"AQAAAA==\",\"base64\"],\"executable\":false,\"lamports\":1461600,"
+            + "\"owner\":\"TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA\",\"rentEpoch\":220}},"
+            + "\"id\":\"3f2c1a52-0e1a-4c59-9d7f-6a0b3e8f5d21\"}";
+
+    @Benchmark
+    public RpcResponse<AccountInfo> freshAdapterPerCall() throws IOException {
+        JsonAdapter<RpcResponse<AccountInfo>> adapter = new Moshi.Builder().build()
+                .adapter(Types.newParameterizedType(RpcResponse.class, AccountInfo.class));
+        return adapter.fromJson(RESPONSE);
+    }
+
+    @Benchmark
+    public RpcResponse<AccountInfo> cachedAdapter() throws IOException {
+        JsonAdapter<RpcResponse<AccountInfo>> adapter = JsonAdapterRegistry.getResponseAdapter(AccountInfo.class);
+        return adapter.fromJson(RESPONSE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RpcAdapterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,72 @@
+package org.p2p.solanaj.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.p2p.solanaj.utils.Ed25519Signer;
+import org.p2p.solanaj.utils.TweetNaclFast;
+
+/**
+ * Ed25519 signatures per second over a typical transfer-sized message: the signed-message path the detached
+ * signature used to go through, the detached path writing into a reused buffer, and {@link Ed25519Signer} with its
+ * secret key expanded once.
+ * Run with {@code -prof gc} to compare allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SignatureBenchmark {
+
+    private final byte[] message = new byte[215];
+    private final byte[] signatureBuffer = new byte[TweetNaclFast.Signature.signatureLength];
+    private TweetNaclFast.Signature signature;
+    private Ed25519Signer signer;
+
+    @Setup
+    public void setup() {
+        new Random(1).nextBytes(message);
+        TweetNaclFast.Signature.KeyPair keyPair = TweetNaclFast.Signature.keyPair();
+        signature = new TweetNaclFast.Signature(keyPair.getPublicKey(), keyPair.getSecretKey());
+        signer = new Ed25519Signer(keyPair.getSecretKey());
+    }
+
+    @Benchmark
+    public byte[] signedMessage() {
+        byte[] signedMessage = signature.sign(message);
+        byte[] sig = new byte[TweetNaclFast.Signature.signatureLength];
+        System.arraycopy(signedMessage, 0, sig, 0, sig.length);
+        return sig;
+    }
+
+    @Benchmark
+    public byte[] detachedIntoBuffer() {
+        signature.detached(message, 0, message.length, signatureBuffer, 0);
+        return signatureBuffer;
+    }
+
+    @Benchmark
+    public byte[] expandedKeySigner() {
+        signer.sign(message, 0, message.length, signatureBuffer, 0);
+        return signatureBuffer;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SignatureBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,88 @@
+package org.p2p.solanaj.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.core.Transaction;
+import org.p2p.solanaj.core.TransactionBatchSigner;
+import org.p2p.solanaj.programs.SystemProgram;
+
+/**
+ * Signed payout transactions per second, signing one at a time versus the batch signer at increasing parallelism.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionBatchSignerBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({ "1", "2", "4", "8" })
+    private int parallelism;
+
+    private final Account payer = new Account();
+    private final List<Transaction> transactions = new ArrayList<>();
+    private ForkJoinPool pool;
+    private TransactionBatchSigner batchSigner;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Transaction transaction = new Transaction();
+            transaction.addInstruction(SystemProgram.transfer(payer.getPublicKey(), new Account().getPublicKey(),
+                    1000 + i));
+            transaction.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+            transactions.add(transaction);
+        }
+        pool = new ForkJoinPool(parallelism);
+        batchSigner = new TransactionBatchSigner(pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<byte[]> oneAtATime() {
+        List<byte[]> result = new ArrayList<>(BATCH_SIZE);
+        for (Transaction transaction : transactions) {
+            transaction.sign(payer);
+            result.add(transaction.serialize());
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<byte[]> batch() {
+        return batchSigner.sign(transactions, List.of(payer));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TransactionBatchSignerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,55 @@
+package org.p2p.solanaj.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class AccountKeysListTest {
+
+    @Test
+    public void keepsInsertionOrderWithinClass() {
+        PublicKey[] keys = new PublicKey[6];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new Account().getPublicKey();
+        }
+
+        AccountKeysList accountKeysList = new AccountKeysList();
+        accountKeysList.addAll(Arrays.asList(
+                new AccountMeta(keys[0], false, false),
+                new AccountMeta(keys[1], false, true),
+                new AccountMeta(keys[2], true, false),
+                new AccountMeta(keys[3], false, false),
+                new AccountMeta(keys[4], false, true),
+                new AccountMeta(keys[5], true, true),
+                // upgraded to writable, keeps its position among the writable non-signers
+                new AccountMeta(keys[0], false, true)
+        ));
+
+        List<AccountMeta> list = accountKeysList.getList();
+
+        assertEquals(6, list.size());
+        assertEquals(keys[5], list.get(0).getPublicKey());
+        assertEquals(keys[2], list.get(1).getPublicKey());
+        assertEquals(keys[0], list.get(2).getPublicKey());
+        assertTrue(list.get(2).isWritable());
+        assertEquals(keys[1], list.get(3).getPublicKey());
+        assertEquals(keys[4], list.get(4).getPublicKey());
+        assertEquals(keys[3], list.get(5).getPublicKey());
+    }
+
+    @Test
+    public void mergesSignerRole() {
+        PublicKey key = new Account().getPublicKey();
+
+        AccountKeysList accountKeysList = new AccountKeysList();
+        accountKeysList.add(new AccountMeta(key, false, true));
+        accountKeysList.add(new AccountMeta(key, true, false));
+
+        AccountMeta meta = accountKeysList.getList().get(0);
+        assertTrue(meta.isSigner());
+        assertTrue(meta.isWritable());
+    }
+}
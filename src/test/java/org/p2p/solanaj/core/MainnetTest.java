@@ -92,6 +92,35 @@ public class MainnetTest extends AccountBasedTest {
         }
     }
 
+    @Test
+    public void getAccountInfoAsync() throws Exception {
+        final AccountInfo accountInfo = client.getApi()
+                .getAccountInfoAsync(PublicKey.valueOf("So11111111111111111111111111111111111111112"))
+                .get();
+
+        assertTrue(accountInfo.getValue().getLamports() > 0);
+    }
+
+    @Test
+    public void getBalanceAsync() throws Exception {
+        final long balance = client.getApi()
+                .getBalanceAsync(PublicKey.valueOf("So11111111111111111111111111111111111111112"))
+                .get();
+
+        assertTrue(balance > 0);
+    }
+
+    @Test
+    public void getBalancesBatch() throws RpcException {
+        final List<Long> balances = client.getApi().getBalances(List.of(
+                PublicKey.valueOf("So11111111111111111111111111111111111111112"),
+                USDC_TOKEN_MINT
+        ), null);
+
+        assertEquals(2, balances.size());
+        assertTrue(balances.get(0) > 0);
+    }
+
     /**
      * Calls sendTransaction with a call to the Memo program included.
      */
@@ -0,0 +1,74 @@
+package org.p2p.solanaj.core;
+
+import org.bitcoinj.core.Base58;
+import org.junit.Test;
+import org.p2p.solanaj.programs.SystemProgram;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MessageTemplateTest {
+
+    private final static Account signer = new Account(Base58
+            .decode("4Z7cXSyeFR8wNGMVXUE1TwtKn5D5Vu7FzEv69dokLv7KrQk7h6pu4LF8ZRR9yQBhc7uSM6RTTZtU1fmaxiNrxXrs"));
+    private final static PublicKey toPublicKey = new PublicKey("GrDMoeqMLFjeXQ24H56S1RLgT4R76jsuWCd6SvXyGPQ5");
+
+    private static Transaction transfer(long lamports, String recentBlockhash) {
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(SystemProgram.transfer(signer.getPublicKey(), toPublicKey, lamports));
+        transaction.setRecentBlockHash(recentBlockhash);
+        transaction.sign(signer);
+        return transaction;
+    }
+
+    @Test
+    public void patchBlockhashAndData() {
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(SystemProgram.transfer(signer.getPublicKey(), toPublicKey, 3000));
+        transaction.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+
+        MessageTemplate template = new MessageTemplate(transaction, signer.getPublicKey());
+        assertEquals(1, template.getNumRequiredSignatures());
+        assertEquals(1, template.getInstructionCount());
+        assertArrayEquals(transfer(3000, "Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn").serialize(),
+                template.signAndSerialize(signer));
+
+        // lamports are the u64 after the 4 byte instruction index
+        template.setRecentBlockHash("GrDMoeqMLFjeXQ24H56S1RLgT4R76jsuWCd6SvXyGPQ5")
+                .patchInstructionData(0, 4, new byte[] { (byte) 0xe8, 0x03 });
+
+        assertArrayEquals(transfer(1000, "GrDMoeqMLFjeXQ24H56S1RLgT4R76jsuWCd6SvXyGPQ5").serialize(),
+                template.signAndSerialize(signer));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void instructionDataCannotBeResized() {
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(SystemProgram.transfer(signer.getPublicKey(), toPublicKey, 3000));
+        transaction.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+
+        new MessageTemplate(transaction, signer.getPublicKey()).setInstructionData(0, new byte[4]);
+    }
+
+    @Test
+    public void rejectsSignersNotMatchingSignerKeys() {
+        Account other = new Account();
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(SystemProgram.transfer(signer.getPublicKey(), toPublicKey, 3000));
+        transaction.addInstruction(SystemProgram.transfer(other.getPublicKey(), toPublicKey, 3000));
+        transaction.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+        MessageTemplate template = new MessageTemplate(transaction, signer.getPublicKey());
+
+        assertNotNull(template.signAndSerialize(Arrays.asList(signer, other)));
+        for (List<Account> signers : Arrays.asList(Arrays.asList(other, signer),
+                Arrays.asList(signer, new Account()))) {
+            try {
+                template.signAndSerialize(signers);
+                fail();
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+}
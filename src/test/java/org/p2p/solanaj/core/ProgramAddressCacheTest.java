@@ -0,0 +1,71 @@
+package org.p2p.solanaj.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ProgramAddressCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final PublicKey mint = new PublicKey("EPjFWdd5AufqSSqeM2qN1xzybapC8G4wEGGkZwyTDt1v");
+
+    @Test
+    public void countsHitsAndStaysBounded() {
+        ProgramAddressCache cache = new ProgramAddressCache(64);
+        PublicKey owner = new Account().getPublicKey();
+
+        PublicKey first = cache.findAssociatedTokenAddress(owner, mint);
+        PublicKey second = cache.findAssociatedTokenAddress(owner, mint);
+
+        assertEquals(ProgramAddressDeriver.findAssociatedTokenAddress(owner, mint), first);
+        assertSame(first, second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 0);
+
+        for (int i = 0; i < 200; i++) {
+            cache.findAssociatedTokenAddress(new Account().getPublicKey(), mint);
+        }
+        assertTrue(cache.size() <= 64);
+        assertTrue(cache.getEvictionCount() > 0);
+    }
+
+    @Test
+    public void fillsToMaxSizeNotDivisibleBySegments() {
+        ProgramAddressCache cache = new ProgramAddressCache(100);
+        for (int i = 0; i < 2000; i++) {
+            cache.findProgramAddress(List.of(Integer.toString(i).getBytes()), mint);
+        }
+        assertEquals(100, cache.getMaxSize());
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    public void snapshotRoundTrip() throws Exception {
+        ProgramAddressCache cache = new ProgramAddressCache(1024);
+        List<PublicKey> owners = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            owners.add(new Account().getPublicKey());
+            cache.findAssociatedTokenAddress(owners.get(i), mint);
+        }
+
+        Path snapshot = folder.getRoot().toPath().resolve("pda.snapshot");
+        cache.save(snapshot);
+
+        ProgramAddressCache restored = new ProgramAddressCache(1024);
+        assertEquals(50, restored.load(snapshot));
+        for (PublicKey owner : owners) {
+            assertEquals(cache.findAssociatedTokenAddress(owner, mint), restored.findAssociatedTokenAddress(owner, mint));
+        }
+        assertEquals(50, restored.getHitCount());
+        assertEquals(0, restored.getMissCount());
+    }
+}
@@ -0,0 +1,55 @@
+package org.p2p.solanaj.core;
+
+import org.junit.Test;
+import org.p2p.solanaj.core.PublicKey.ProgramDerivedAddress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class ProgramAddressDeriverTest {
+
+    @Test
+    public void bulkMatchesSingleDerivation() {
+        PublicKey mint = new PublicKey("EPjFWdd5AufqSSqeM2qN1xzybapC8G4wEGGkZwyTDt1v");
+        List<PublicKey> owners = new ArrayList<>();
+        List<PublicKey> mints = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            owners.add(new Account().getPublicKey());
+            mints.add(mint);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        List<PublicKey> addresses;
+        try {
+            addresses = new ProgramAddressDeriver(pool).findAssociatedTokenAddresses(owners, mints);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(owners.size(), addresses.size());
+        for (int i = 0; i < owners.size(); i++) {
+            ProgramDerivedAddress expected = ProgramAddressDeriver.findProgramAddress(
+                    ProgramAddressDeriver.associatedTokenSeeds(owners.get(i), mint),
+                    ProgramAddressDeriver.ASSOCIATED_TOKEN_PROGRAM_ID);
+            assertEquals(expected.getAddress(), addresses.get(i));
+            assertEquals(ProgramAddressDeriver.findAssociatedTokenAddress(owners.get(i), mint), addresses.get(i));
+        }
+    }
+
+    @Test
+    public void onCurveAddressIsNullInsteadOfException() {
+        PublicKey programId = new PublicKey("BPFLoader1111111111111111111111111111111111");
+        int onCurve = 0;
+        for (int nonce = 255; nonce > 200; nonce--) {
+            List<byte[]> seeds = List.of("seed".getBytes(), new byte[] { (byte) nonce });
+            if (ProgramAddressDeriver.createProgramAddress(seeds, programId) == null) {
+                onCurve++;
+            }
+        }
+        // about half of all hashes decode to a curve point
+        assertTrue(onCurve > 0);
+    }
+}
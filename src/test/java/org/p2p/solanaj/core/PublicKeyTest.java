@@ -2,6 +2,7 @@ package org.p2p.solanaj.core;
 
 import org.junit.Test;
 import org.p2p.solanaj.core.PublicKey.ProgramDerivedAddress;
+import org.p2p.solanaj.programs.TokenProgram;
 
 import static org.junit.Assert.*;
 
@@ -107,4 +108,31 @@ public class PublicKeyTest {
         assertEquals(programAddress2.getNonce(), 254);
     }
 
+    @Test
+    public void immutable() {
+        byte[] bytes = new byte[32];
+        bytes[0] = 3;
+        PublicKey key = new PublicKey(bytes);
+        String base58 = key.toBase58();
+
+        bytes[0] = 4;
+        key.toByteArray()[0] = 5;
+
+        assertEquals(3, key.toByteArray()[0]);
+        assertSame(base58, key.toBase58());
+        assertEquals(new PublicKey(base58), key);
+        assertEquals(new PublicKey(base58).hashCode(), key.hashCode());
+    }
+
+    @Test
+    public void wellKnownKeysAreInterned() {
+        PublicKey tokenProgram = PublicKey.valueOf("TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA");
+
+        assertSame(TokenProgram.PROGRAM_ID, tokenProgram);
+        assertSame(tokenProgram, PublicKey.intern(new PublicKey("TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA")));
+
+        PublicKey other = new PublicKey("CiDwVBFgWV9E5MvXWoLgnEgn2hK7rJikbvfWavzAQz3");
+        assertSame(other, PublicKey.intern(other));
+        assertNotSame(other, PublicKey.valueOf("CiDwVBFgWV9E5MvXWoLgnEgn2hK7rJikbvfWavzAQz3"));
+    }
 }
@@ -0,0 +1,49 @@
+package org.p2p.solanaj.core;
+
+import org.junit.Test;
+import org.p2p.solanaj.programs.SystemProgram;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class TransactionBatchSignerTest {
+
+    private static final String BLOCKHASH = "Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn";
+
+    @Test
+    public void matchesSequentialSigning() {
+        Account payer = new Account();
+        List<Transaction> batch = new ArrayList<>();
+        List<Transaction> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(payout(payer, i));
+            expected.add(payout(payer, i));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<String> signed;
+        try {
+            signed = new TransactionBatchSigner(pool, 4).signToBase64(batch, List.of(payer));
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(100, signed.size());
+        for (int i = 0; i < expected.size(); i++) {
+            expected.get(i).sign(payer);
+            assertEquals(Base64.getEncoder().encodeToString(expected.get(i).serialize()), signed.get(i));
+        }
+    }
+
+    private static Transaction payout(Account payer, int lamports) {
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(SystemProgram.transfer(payer.getPublicKey(),
+                new PublicKey("GrDMoeqMLFjeXQ24H56S1RLgT4R76jsuWCd6SvXyGPQ5"), 1000 + lamports));
+        transaction.setRecentBlockHash(BLOCKHASH);
+        return transaction;
+    }
+}
@@ -6,10 +6,12 @@ import org.p2p.solanaj.programs.SystemProgram;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
 
 import org.bitcoinj.core.Base58;
+import org.p2p.solanaj.utils.TweetNaclFast;
 
 public class TransactionTest {
 
@@ -53,4 +55,42 @@ public class TransactionTest {
         );
     }
 
+    @Test
+    public void multiSignerParallelAndCoSigned() {
+        Account second = new Account();
+        Account third = new Account();
+
+        Transaction parallel = multiSignerTransaction(second, third);
+        parallel.sign(Arrays.asList(signer, second, third));
+
+        Transaction sequential = multiSignerTransaction(second, third);
+        sequential.setSigningExecutor(null);
+        sequential.sign(Arrays.asList(signer, second, third));
+
+        assertArrayEquals(sequential.serialize(), parallel.serialize());
+
+        // fee payer signs now, the co-signers sign the compiled message offline
+        Transaction coSigned = multiSignerTransaction(second, third);
+        coSigned.sign(signer);
+        assertFalse(coSigned.isFullySigned());
+
+        byte[] message = coSigned.getSerializedMessage();
+        for (Account coSigner : Arrays.asList(third, second)) {
+            byte[] signature = new TweetNaclFast.Signature(new byte[0], coSigner.getSecretKey()).detached(message);
+            coSigned.addSignature(coSigned.getSignerIndex(coSigner.getPublicKey()), signature);
+        }
+
+        assertTrue(coSigned.isFullySigned());
+        assertArrayEquals(parallel.serialize(), coSigned.serialize());
+    }
+
+    private static Transaction multiSignerTransaction(Account second, Account third) {
+        Transaction transaction = new Transaction();
+        transaction.addInstruction(SystemProgram.transfer(signer.getPublicKey(), second.getPublicKey(), 1000));
+        transaction.addInstruction(MemoProgram.writeUtf8(third.getPublicKey(), "co-signed"));
+        transaction.addInstruction(MemoProgram.writeUtf8(second.getPublicKey(), "co-signed"));
+        transaction.setRecentBlockHash("Eit7RCyhUixAe2hGBS8oqnw59QK3kgMMjfLME5bm9wRn");
+        return transaction;
+    }
+
 }
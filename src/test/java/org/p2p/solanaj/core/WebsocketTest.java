@@ -3,10 +3,9 @@ package org.p2p.solanaj.core;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.p2p.solanaj.rpc.Cluster;
+import org.p2p.solanaj.ws.AccountNotification;
 import org.p2p.solanaj.ws.SubscriptionWebSocketClient;
 
-import java.util.List;
-import java.util.Map;
 import java.util.logging.Logger;
 
 import static org.junit.Assert.assertTrue;
@@ -24,18 +23,17 @@ public class WebsocketTest {
         devnetClient.accountSubscribe(
                 PublicKey.valueOf("E36MyBbavhYKHVLWR79GiReNNnBDiHj6nWA7htbkNZbh").toBase58(),
                 data -> {
-                    Map<String, Object> map = (Map<String, Object>) data;
-                    String base64 = (String)((List) map.get("data")).get(0);
+                    AccountNotification notification = (AccountNotification) data;
                     LOGGER.info(
                             String.format(
                                     "Event = %s",
-                                    map
+                                    notification
                             )
                     );
                     LOGGER.info(
                             String.format(
                                     "Data = %s",
-                                    base64
+                                    notification.getData()
                             )
                     );
                 }
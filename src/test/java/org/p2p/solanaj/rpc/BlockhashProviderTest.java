@@ -0,0 +1,156 @@
+package org.p2p.solanaj.rpc;
+
+import org.junit.After;
+import org.junit.Test;
+import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.core.Transaction;
+import org.p2p.solanaj.programs.SystemProgram;
+import org.p2p.solanaj.utils.Base58;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class BlockhashProviderTest {
+
+    private static final long HOUR_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private final AtomicInteger fetches = new AtomicInteger();
+    // holds blockhash responses back while closed
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+    private final StubTransport transport = new StubTransport(body -> {
+        if (body.contains("sendTransaction")) {
+            return StubTransport.ok("{\"jsonrpc\":\"2.0\",\"error\":{\"code\":-32002,\"message\":"
+                    + "\"Transaction simulation failed: Blockhash not found\"},\"id\":\"1\"}");
+        }
+        try {
+            gate.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int fetch = fetches.incrementAndGet();
+        return StubTransport.ok("{\"jsonrpc\":\"2.0\",\"result\":{\"context\":{\"slot\":" + (100 + fetch)
+                + "},\"value\":{\"blockhash\":\"" + blockhash(fetch) + "\",\"feeCalculator\":"
+                + "{\"lamportsPerSignature\":5000}}},\"id\":\"1\"}");
+    });
+    private final RpcApi api = transport.client().getApi();
+    private BlockhashProvider provider;
+
+    private static String blockhash(int fetch) {
+        byte[] hash = new byte[32];
+        hash[31] = (byte) fetch;
+        return Base58.encode(hash);
+    }
+
+    @After
+    public void close() {
+        if (provider != null) {
+            provider.close();
+        }
+    }
+
+    @Test
+    public void reusesCachedBlockhash() throws Exception {
+        provider = new BlockhashProvider(api, HOUR_NANOS, HOUR_NANOS);
+
+        assertEquals(blockhash(1), provider.getBlockhash());
+        assertEquals(blockhash(1), provider.getBlockhash());
+        assertEquals(blockhash(1), provider.getBlockhashAsync().get(5, TimeUnit.SECONDS));
+        assertEquals(101, provider.getBlockhashSlot(null));
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void refetchesExpiredBlockhash() throws Exception {
+        provider = new BlockhashProvider(api, TimeUnit.MILLISECONDS.toNanos(50), HOUR_NANOS);
+
+        assertEquals(blockhash(1), provider.getBlockhash());
+        Thread.sleep(100);
+        assertEquals(blockhash(2), provider.getBlockhash());
+    }
+
+    @Test
+    public void refreshesInBackgroundUntilClosed() throws Exception {
+        provider = new BlockhashProvider(api, HOUR_NANOS, TimeUnit.MILLISECONDS.toNanos(20));
+        provider.getBlockhash();
+
+        for (int i = 0; i < 250 && fetches.get() < 3; i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(fetches.get() >= 3);
+        assertNotEquals(blockhash(1), provider.getBlockhash());
+
+        provider.close();
+        int afterClose = fetches.get();
+        Thread.sleep(100);
+        assertEquals(afterClose, fetches.get());
+        // still usable on demand
+        assertNotNull(provider.getBlockhash());
+    }
+
+    @Test
+    public void coldAsyncFetchDoesNotBlockAndIsShared() throws Exception {
+        provider = new BlockhashProvider(api, HOUR_NANOS, HOUR_NANOS);
+        gate = new CountDownLatch(1);
+
+        CompletableFuture<String> first = provider.getBlockhashAsync();
+        CompletableFuture<String> second = provider.getBlockhashAsync();
+        assertFalse(first.isDone());
+
+        gate.countDown();
+        assertEquals(blockhash(1), first.get(5, TimeUnit.SECONDS));
+        assertEquals(blockhash(1), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void concurrentColdCallersShareOneFetch() throws Exception {
+        provider = new BlockhashProvider(api, HOUR_NANOS, HOUR_NANOS);
+        gate = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<String>> blockhashes = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                blockhashes.add(callers.submit(() -> provider.getBlockhash()));
+            }
+            // let every caller reach the cold cache before the node answers
+            Thread.sleep(200);
+
+            gate.countDown();
+            for (Future<String> blockhash : blockhashes) {
+                assertEquals(blockhash(1), blockhash.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, fetches.get());
+        } finally {
+            callers.shutdown();
+        }
+    }
+
+    @Test
+    public void invalidatesOnBlockhashNotFound() throws Exception {
+        provider = new BlockhashProvider(api, HOUR_NANOS, HOUR_NANOS);
+        api.setBlockhashProvider(provider);
+        Account signer = new Account();
+        Transaction transaction = new Transaction()
+                .addInstruction(SystemProgram.transfer(signer.getPublicKey(), new Account().getPublicKey(), 1));
+
+        try {
+            api.sendTransactionAsync(transaction, signer).get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException expected) {
+        }
+
+        assertEquals(-1, provider.getBlockhashSlot(null));
+        assertEquals(blockhash(2), provider.getBlockhash());
+    }
+}
@@ -0,0 +1,59 @@
+package org.p2p.solanaj.rpc;
+
+import org.junit.Test;
+import org.p2p.solanaj.rpc.types.WeightedEndpoint;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ClusterLoadBalancerTest {
+
+    private static final String FAST = "https://fast.example.com/";
+    private static final String SLOW = "https://slow.example.com/";
+
+    private static WeightedCluster cluster() {
+        return new WeightedCluster(Arrays.asList(new WeightedEndpoint(FAST, 50), new WeightedEndpoint(SLOW, 50)));
+    }
+
+    @Test
+    public void prefersLowLatencyEndpoint() {
+        ClusterLoadBalancer loadBalancer = new ClusterLoadBalancer(cluster());
+        loadBalancer.recordSuccess(FAST, TimeUnit.MILLISECONDS.toNanos(20));
+        loadBalancer.recordSuccess(SLOW, TimeUnit.MILLISECONDS.toNanos(400));
+
+        int fast = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (loadBalancer.select().getUrl().equals(FAST)) {
+                fast++;
+            }
+        }
+
+        // the slow endpoint only wins when every draw lands on it
+        assertTrue(fast / 10000d > 0.98);
+    }
+
+    @Test
+    public void ejectsFailingEndpoint() {
+        ClusterLoadBalancer loadBalancer = new ClusterLoadBalancer(cluster(), 3, 1, TimeUnit.MINUTES, 150);
+        for (int i = 0; i < 3; i++) {
+            loadBalancer.recordFailure(SLOW, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(FAST, loadBalancer.select().getUrl());
+        }
+    }
+
+    @Test
+    public void skipsLaggingEndpoint() {
+        ClusterLoadBalancer loadBalancer = new ClusterLoadBalancer(cluster(), 3, 1, TimeUnit.MINUTES, 10);
+        loadBalancer.recordSlot(FAST, 1000);
+        loadBalancer.recordSlot(SLOW, 900);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(FAST, loadBalancer.select().getUrl());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package org.p2p.solanaj.rpc;
+
+import okhttp3.OkHttpClient;
+import org.junit.Test;
+import org.p2p.solanaj.rpc.types.WeightedEndpoint;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class FailoverCallTest {
+
+    private static final String A = "https://a.example.com/";
+    private static final String B = "https://b.example.com/";
+    private static final String C = "https://c.example.com/";
+
+    // answers executeAsync per endpoint url instead of sending requests
+    private static class ScriptedClient extends RpcClient {
+        final List<String> urls = new CopyOnWriteArrayList<>();
+        final Map<String, CompletableFuture<?>> calls = new ConcurrentHashMap<>();
+        private final Function<String, CompletableFuture<Object>> script;
+
+        ScriptedClient(OkHttpClient httpClient, Function<String, CompletableFuture<Object>> script, String... urls) {
+            super(null, cluster(urls), httpClient);
+            this.script = script;
+        }
+
+        private static WeightedCluster cluster(String... urls) {
+            WeightedCluster cluster = new WeightedCluster(new CopyOnWriteArrayList<>());
+            for (String url : urls) {
+                cluster.getEndpoints().add(new WeightedEndpoint(url, 1));
+            }
+            return cluster;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        <T> CompletableFuture<T> executeAsync(String url, String method, List<Object> params, Class<T> clazz) {
+            urls.add(url);
+            CompletableFuture<T> call = (CompletableFuture<T>) script.apply(url);
+            calls.put(url, call);
+            return call;
+        }
+    }
+
+    private static CompletableFuture<Object> failed(Throwable error) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> CompletableFuture<T> start(ScriptedClient client, int maxAttempts, boolean hedging) {
+        return new FailoverCall<>(client, client.getLoadBalancer(), maxAttempts, hedging, "getSlot", null,
+                (Class<T>) Object.class).start();
+    }
+
+    private static Throwable failure(CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        fail("expected the call to fail");
+        return null;
+    }
+
+    @Test
+    public void retriesTransportFailureOnAnotherEndpoint() throws Exception {
+        ScriptedClient client = new ScriptedClient(new OkHttpClient(), url -> url.equals(B)
+                ? CompletableFuture.completedFuture("ok") : failed(new IOException("down")), A, B);
+
+        assertEquals("ok", start(client, 3, false).get(5, TimeUnit.SECONDS));
+        assertEquals(client.urls.size(), new HashSet<>(client.urls).size());
+        assertEquals(B, client.urls.get(client.urls.size() - 1));
+    }
+
+    @Test
+    public void stopsAfterMaxAttempts() throws Exception {
+        ScriptedClient client = new ScriptedClient(new OkHttpClient(), url -> failed(new IOException("down")), A, B,
+                C);
+
+        assertTrue(failure(start(client, 2, false)) instanceof RpcException);
+        assertEquals(2, client.urls.size());
+        assertEquals(2, new HashSet<>(client.urls).size());
+    }
+
+    @Test
+    public void neverRetriesTheSameEndpoint() throws Exception {
+        ScriptedClient client = new ScriptedClient(new OkHttpClient(), url -> failed(new IOException("down")), A, B);
+
+        assertTrue(failure(start(client, 5, false)) instanceof RpcException);
+        assertEquals(new HashSet<>(Arrays.asList(A, B)), new HashSet<>(client.urls));
+        assertEquals(2, client.urls.size());
+    }
+
+    @Test
+    public void doesNotRetryNodeErrors() throws Exception {
+        ScriptedClient client = new ScriptedClient(new OkHttpClient(),
+                url -> failed(new RpcException("Invalid params")), A, B);
+
+        Throwable error = failure(start(client, 3, false));
+        assertEquals("Invalid params", error.getMessage());
+        assertEquals(1, client.urls.size());
+    }
+
+    @Test
+    public void hedgesSlowRequestAndCancelsLoser() throws Exception {
+        // the first request never answers; the hedged one does
+        AtomicInteger requests = new AtomicInteger();
+        ScriptedClient hedged = new ScriptedClient(new OkHttpClient(), url -> requests.getAndIncrement() == 0
+                ? new CompletableFuture<>() : CompletableFuture.completedFuture("hedged"), A, B);
+        for (ClusterLoadBalancer.EndpointHealth endpoint : hedged.getLoadBalancer().getEndpoints()) {
+            hedged.getLoadBalancer().recordSuccess(endpoint.getUrl(), TimeUnit.MILLISECONDS.toNanos(20));
+        }
+
+        assertEquals("hedged", start(hedged, 2, true).get(5, TimeUnit.SECONDS));
+        assertEquals(2, hedged.urls.size());
+        assertTrue(hedged.calls.get(hedged.urls.get(0)).isCancelled());
+    }
+
+    @Test
+    public void callReadOnlyIsBoundedByTimeouts() throws Exception {
+        OkHttpClient httpClient = new OkHttpClient.Builder().connectTimeout(50, TimeUnit.MILLISECONDS)
+                .writeTimeout(50, TimeUnit.MILLISECONDS).readTimeout(50, TimeUnit.MILLISECONDS).build();
+        ScriptedClient client = new ScriptedClient(httpClient, url -> new CompletableFuture<>(), A);
+        client.setFailover(1, false);
+
+        long start = System.nanoTime();
+        try {
+            client.callReadOnly("getSlot", null, Object.class);
+            fail();
+        } catch (RpcException expected) {
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        assertTrue(client.calls.get(A).isCancelled());
+    }
+}
@@ -0,0 +1,76 @@
+package org.p2p.solanaj.rpc;
+
+import org.junit.Test;
+import org.p2p.solanaj.rpc.types.AccountInfo;
+import org.p2p.solanaj.rpc.types.MultipleAccounts;
+import org.p2p.solanaj.rpc.types.ProgramAccount;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonDataException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class JsonAdapterRegistryTest {
+
+    @Test
+    public void decodeProgramAccount() throws IOException {
+        String json = "{\"account\":{\"data\":[\"AQID\",\"base64\"],\"executable\":false,"
+                + "\"lamports\":9007199254740993,\"owner\":\"TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA\","
+                + "\"rentEpoch\":18446744073709551615,\"space\":3},"
+                + "\"pubkey\":\"4Nd1mBQtrMJVYVfKf2PJy9NZUZdTAsp7D4xWLs4gDB4T\"}";
+
+        ProgramAccount programAccount = JsonAdapterRegistry.getProgramAccountAdapter().fromJson(json);
+
+        assertEquals("4Nd1mBQtrMJVYVfKf2PJy9NZUZdTAsp7D4xWLs4gDB4T", programAccount.getPubkey());
+        // beyond double precision
+        assertEquals(9007199254740993L, programAccount.getAccount().getLamports());
+        assertEquals(-1L, programAccount.getAccount().getRentEpoch());
+        assertArrayEquals(new byte[] { 1, 2, 3 }, programAccount.getAccount().getDecodedData());
+    }
+
+    @Test
+    public void decodeMultipleAccounts() throws IOException {
+        String json = "{\"jsonrpc\":\"2.0\",\"result\":{\"context\":{\"slot\":1},\"value\":[null,"
+                + "{\"data\":[\"AQID\",\"base64\"],\"executable\":true,\"lamports\":1461600,"
+                + "\"owner\":\"BPFLoader2111111111111111111111111111111111\",\"rentEpoch\":220}]},\"id\":\"1\"}";
+
+        MultipleAccounts result = JsonAdapterRegistry.<MultipleAccounts>getResponseAdapter(MultipleAccounts.class)
+                .fromJson(json)
+                .getResult();
+
+        assertNull(result.getValue().get(0));
+        AccountInfo.Value value = result.getValue().get(1);
+        assertTrue(value.isExecutable());
+        assertEquals(1461600L, value.getLamports());
+        assertEquals(220L, value.getRentEpoch());
+        assertEquals("base64", value.getData().get(1));
+    }
+
+    @Test
+    public void decodeReplayedU64() {
+        Map<String, Object> account = new HashMap<>();
+        account.put("data", Arrays.asList("AQID", "base64"));
+        account.put("executable", false);
+        account.put("lamports", 1461600.0);
+        account.put("owner", "TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA");
+        // u64::MAX as a double
+        account.put("rentEpoch", 1.8446744073709552E19);
+
+        JsonAdapter<AccountInfo.Value> adapter = JsonAdapterRegistry.getMoshi().adapter(AccountInfo.Value.class);
+        AccountInfo.Value value = adapter.fromJsonValue(account);
+        assertEquals(1461600L, value.getLamports());
+        assertEquals(-1L, value.getRentEpoch());
+
+        account.put("lamports", 1.5);
+        try {
+            adapter.fromJsonValue(account);
+            fail();
+        } catch (JsonDataException expected) {
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.p2p.solanaj.rpc;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RpcBatcherTest {
+
+    // answers each request of a batch with the number of requests in that batch
+    private final StubTransport transport = new StubTransport(body -> {
+        try {
+            List<?> requests = (List<?>) JsonAdapterRegistry.getRawAdapter().fromJson(body);
+            StringBuilder response = new StringBuilder("[");
+            for (Object request : requests) {
+                if (response.length() > 1) {
+                    response.append(',');
+                }
+                response.append("{\"jsonrpc\":\"2.0\",\"result\":").append(requests.size()).append(",\"id\":\"")
+                        .append(((Map<?, ?>) request).get("id")).append("\"}");
+            }
+            return StubTransport.ok(response.append(']').toString());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    });
+    private final RpcClient client = transport.client();
+
+    @Test
+    public void coalescesCallsIntoOneBatch() throws Exception {
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        try (RpcBatcher batcher = new RpcBatcher(client, 50, 100)) {
+            for (int i = 0; i < 3; i++) {
+                futures.add(batcher.call("getBalance", null, Long.class));
+            }
+            for (CompletableFuture<Long> future : futures) {
+                assertEquals(Long.valueOf(3), future.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, transport.requests.size());
+    }
+
+    @Test
+    public void sizeFlushCancelsWindowFlush() throws Exception {
+        try (RpcBatcher batcher = new RpcBatcher(client, 300, 2)) {
+            batcher.call("getBalance", null, Long.class);
+            batcher.call("getBalance", null, Long.class).get(5, TimeUnit.SECONDS);
+
+            Thread.sleep(150);
+            CompletableFuture<Long> next = batcher.call("getBalance", null, Long.class);
+            // past the first batch's window but inside the second's
+            Thread.sleep(200);
+            assertEquals(1, transport.requests.size());
+            assertFalse(next.isDone());
+
+            assertEquals(Long.valueOf(1), next.get(5, TimeUnit.SECONDS));
+            assertEquals(2, transport.requests.size());
+        }
+    }
+
+    @Test
+    public void callAfterCloseFails() throws Exception {
+        RpcBatcher batcher = new RpcBatcher(client);
+        batcher.close();
+
+        try {
+            batcher.call("getBalance", null, Long.class).get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RpcException);
+        }
+        assertTrue(transport.requests.isEmpty());
+    }
+
+    @Test
+    public void emptyBatchIsNotSent() throws Exception {
+        assertTrue(client.callBatch(Collections.emptyList(), Long.class).isEmpty());
+        assertTrue(transport.requests.isEmpty());
+    }
+}
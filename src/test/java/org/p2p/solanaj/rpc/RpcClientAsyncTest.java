@@ -0,0 +1,71 @@
+package org.p2p.solanaj.rpc;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RpcClientAsyncTest {
+
+    private static Throwable failure(CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        fail("expected the call to fail");
+        return null;
+    }
+
+    @Test
+    public void completesWithResult() throws Exception {
+        RpcClient client = new StubTransport(body -> StubTransport.ok("{\"jsonrpc\":\"2.0\",\"result\":42,\"id\":\"1\"}"))
+                .client();
+
+        assertEquals(Long.valueOf(42), client.callAsync("getSlot", null, Long.class).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void failsWithRpcError() throws Exception {
+        RpcClient client = new StubTransport(body -> StubTransport.ok("{\"jsonrpc\":\"2.0\",\"error\":"
+                + "{\"code\":-32602,\"message\":\"Invalid params\"},\"id\":\"1\"}")).client();
+
+        Throwable error = failure(client.callAsync("getSlot", null, Long.class));
+        assertTrue(error instanceof RpcException);
+        assertEquals("Invalid params", error.getMessage());
+    }
+
+    @Test
+    public void failsOnHttpError() throws Exception {
+        RpcClient client = new StubTransport(body -> new StubTransport.StubResponse(503, "unavailable")).client();
+
+        Throwable error = failure(client.callAsync("getSlot", null, Long.class));
+        assertTrue(error instanceof RpcException);
+        assertTrue(error.getMessage().contains("503"));
+    }
+
+    @Test
+    public void failsOnMalformedBody() throws Exception {
+        RpcClient client = new StubTransport(body -> StubTransport.ok("{\"jsonrpc\":\"2.0\",\"res")).client();
+
+        assertTrue(failure(client.callAsync("getSlot", null, Long.class)) instanceof RpcException);
+    }
+
+    @Test
+    public void failsOnResultOfWrongType() throws Exception {
+        RpcClient client = new StubTransport(body -> StubTransport.ok("{\"jsonrpc\":\"2.0\",\"result\":"
+                + "{\"unexpected\":true},\"id\":\"1\"}")).client();
+
+        assertTrue(failure(client.callAsync("getSlot", null, Long.class)) instanceof RpcException);
+    }
+
+    @Test
+    public void failsOnTransportError() throws Exception {
+        RpcClient client = new StubTransport(body -> null).client();
+
+        assertTrue(failure(client.callAsync("getSlot", null, Long.class)) instanceof RpcException);
+    }
+}
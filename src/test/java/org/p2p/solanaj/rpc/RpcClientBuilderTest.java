@@ -0,0 +1,108 @@
+package org.p2p.solanaj.rpc;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.junit.Test;
+import org.p2p.solanaj.rpc.types.WeightedEndpoint;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class RpcClientBuilderTest {
+
+    private static final String ENDPOINT = "https://api.example.com/";
+
+    @Test
+    public void defaults() {
+        OkHttpClient httpClient = new RpcClientBuilder(ENDPOINT).build().getHttpClient();
+
+        assertEquals(20_000, httpClient.readTimeoutMillis());
+        assertEquals(64, httpClient.dispatcher().getMaxRequests());
+        assertEquals(5, httpClient.dispatcher().getMaxRequestsPerHost());
+        assertEquals(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1), httpClient.protocols());
+    }
+
+    @Test
+    public void appliesSettings() {
+        ConnectionPool pool = new ConnectionPool();
+        RpcClient client = new RpcClientBuilder(ENDPOINT)
+                .connectionPool(pool)
+                .maxRequests(10)
+                .maxRequestsPerHost(2)
+                .preferHttp2(false)
+                .connectTimeout(Duration.ofSeconds(1))
+                .readTimeout(Duration.ofSeconds(2))
+                .writeTimeout(Duration.ofSeconds(3))
+                .callTimeout(Duration.ofSeconds(4))
+                .build();
+        OkHttpClient httpClient = client.getHttpClient();
+
+        assertEquals(ENDPOINT, client.getEndpoint());
+        assertSame(pool, httpClient.connectionPool());
+        assertEquals(10, httpClient.dispatcher().getMaxRequests());
+        assertEquals(2, httpClient.dispatcher().getMaxRequestsPerHost());
+        assertEquals(Collections.singletonList(Protocol.HTTP_1_1), httpClient.protocols());
+        assertEquals(1_000, httpClient.connectTimeoutMillis());
+        assertEquals(2_000, httpClient.readTimeoutMillis());
+        assertEquals(3_000, httpClient.writeTimeoutMillis());
+        assertEquals(4_000, httpClient.callTimeoutMillis());
+    }
+
+    @Test
+    public void inheritsBaseClient() {
+        Interceptor interceptor = chain -> chain.proceed(chain.request());
+        OkHttpClient base = new OkHttpClient.Builder().addInterceptor(interceptor).build();
+
+        OkHttpClient httpClient = new RpcClientBuilder(ENDPOINT).httpClient(base).build().getHttpClient();
+
+        assertSame(base.connectionPool(), httpClient.connectionPool());
+        assertSame(base.dispatcher(), httpClient.dispatcher());
+        assertTrue(httpClient.interceptors().contains(interceptor));
+    }
+
+    @Test
+    public void keepsBaseClientSettingsNotSetOnBuilder() {
+        OkHttpClient base = new OkHttpClient.Builder()
+                .readTimeout(Duration.ofSeconds(45))
+                .protocols(Collections.singletonList(Protocol.HTTP_1_1))
+                .build();
+
+        OkHttpClient httpClient = new RpcClientBuilder(ENDPOINT).httpClient(base).build().getHttpClient();
+
+        assertEquals(45_000, httpClient.readTimeoutMillis());
+        assertEquals(Collections.singletonList(Protocol.HTTP_1_1), httpClient.protocols());
+    }
+
+    @Test
+    public void appliesPoolAndDispatcherSettingsOverBaseClient() {
+        OkHttpClient base = new OkHttpClient();
+
+        OkHttpClient httpClient = new RpcClientBuilder(ENDPOINT)
+                .httpClient(base)
+                .maxIdleConnections(2)
+                .maxRequestsPerHost(9)
+                .build()
+                .getHttpClient();
+
+        assertNotSame(base.connectionPool(), httpClient.connectionPool());
+        assertNotSame(base.dispatcher(), httpClient.dispatcher());
+        assertSame(base.dispatcher().executorService(), httpClient.dispatcher().executorService());
+        assertEquals(base.dispatcher().getMaxRequests(), httpClient.dispatcher().getMaxRequests());
+        assertEquals(9, httpClient.dispatcher().getMaxRequestsPerHost());
+    }
+
+    @Test
+    public void clusterClientBalancesLoad() {
+        WeightedCluster cluster = new WeightedCluster(Arrays.asList(new WeightedEndpoint(ENDPOINT, 1)));
+        RpcClient client = new RpcClientBuilder(cluster).build();
+
+        assertNotNull(client.getLoadBalancer());
+        assertTrue(client.getHttpClient().interceptors().contains(client.getLoadBalancer()));
+        assertEquals(ENDPOINT, client.getEndpoint());
+    }
+}
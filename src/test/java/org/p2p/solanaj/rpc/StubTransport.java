@@ -0,0 +1,71 @@
+package org.p2p.solanaj.rpc;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+/**
+ * Answers RPC requests in-process instead of over the network. The handler gets the request body and returns the
+ * response; a null body stands for a transport failure.
+ */
+class StubTransport implements Interceptor {
+
+    static final String ENDPOINT = "http://stub.invalid/";
+
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    static class StubResponse {
+        final int code;
+        final String body;
+
+        StubResponse(int code, String body) {
+            this.code = code;
+            this.body = body;
+        }
+    }
+
+    final List<String> requests = new CopyOnWriteArrayList<>();
+    private final Function<String, StubResponse> handler;
+
+    StubTransport(Function<String, StubResponse> handler) {
+        this.handler = handler;
+    }
+
+    static StubResponse ok(String body) {
+        return new StubResponse(200, body);
+    }
+
+    OkHttpClient httpClient() {
+        return new OkHttpClient.Builder().addInterceptor(this).build();
+    }
+
+    RpcClient client() {
+        return new RpcClientBuilder(ENDPOINT).httpClient(httpClient()).build();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Buffer buffer = new Buffer();
+        request.body().writeTo(buffer);
+        String body = buffer.readUtf8();
+        requests.add(body);
+
+        StubResponse response = handler.apply(body);
+        if (response == null || response.body == null) {
+            throw new IOException("stub transport failure");
+        }
+        return new Response.Builder().request(request).protocol(Protocol.HTTP_1_1).code(response.code)
+                .message("stub").body(ResponseBody.create(response.body, JSON)).build();
+    }
+}
@@ -0,0 +1,126 @@
+package org.p2p.solanaj.rpc.types;
+
+import org.junit.Test;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.JsonAdapterRegistry;
+import org.p2p.solanaj.utils.Base58;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class ProgramAccountTest {
+
+    private static final PublicKey OWNER = new PublicKey("TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA");
+
+    // u8 7, u64 u64::MAX - 1, then a public key
+    private static byte[] layout() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 8 + PublicKey.PUBLIC_KEY_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put((byte) 7);
+        buffer.putLong(-2L);
+        buffer.put(OWNER.toByteArray());
+        return buffer.array();
+    }
+
+    private static ProgramAccount.Account account(byte[] data, String encoding) {
+        String encoded = "base64".equals(encoding) ? Base64.getEncoder().encodeToString(data) : Base58.encode(data);
+        return new ProgramAccount.Account(encoded, encoding, false, 1, OWNER.toBase58(), 0);
+    }
+
+    @Test
+    public void offsetAccessors() {
+        for (String encoding : new String[] {"base64", "base58"}) {
+            ProgramAccount.Account account = account(layout(), encoding);
+
+            assertEquals(41, account.getDataLength());
+            assertEquals(7, account.readU8(0));
+            assertEquals("18446744073709551614", Long.toUnsignedString(account.readU64(1)));
+            assertEquals(OWNER, account.readPublicKey(9));
+            assertArrayEquals(layout(), account.getDecodedData());
+        }
+    }
+
+    @Test
+    public void dataBufferIsReadOnlyLittleEndian() {
+        ByteBuffer buffer = account(layout(), "base64").getDataBuffer();
+
+        assertEquals(0, buffer.position());
+        assertEquals(ByteOrder.LITTLE_ENDIAN, buffer.order());
+        assertEquals(-2L, buffer.getLong(1));
+        try {
+            buffer.put(0, (byte) 1);
+            fail();
+        } catch (ReadOnlyBufferException expected) {
+        }
+    }
+
+    @Test
+    public void decodedDataIsACopy() {
+        ProgramAccount.Account account = account(layout(), "base64");
+
+        account.getDecodedData()[0] = 0;
+        assertEquals(7, account.readU8(0));
+    }
+
+    @Test
+    public void discardReencodesInOriginalEncoding() {
+        for (String encoding : new String[] {"base64", "base58"}) {
+            ProgramAccount.Account account = account(layout(), encoding);
+            String encoded = account.getData();
+
+            account.discardEncodedData();
+            assertEquals(encoded, account.getData());
+            assertEquals(7, account.readU8(0));
+        }
+    }
+
+    @Test
+    public void discardRacesWithDecode() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            ProgramAccount.Account account = account(layout(), "base58");
+            CountDownLatch start = new CountDownLatch(1);
+            List<Throwable> errors = new ArrayList<>();
+
+            Thread reader = new Thread(() -> {
+                try {
+                    start.await();
+                    assertEquals(7, account.readU8(0));
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            reader.start();
+            start.countDown();
+            account.discardEncodedData();
+            reader.join();
+
+            assertTrue(errors.toString(), errors.isEmpty());
+        }
+    }
+
+    @Test
+    public void u64MaxRentEpochMatchesAcrossDecodePaths() throws Exception {
+        String json = "{\"account\":{\"data\":[\"AQID\",\"base64\"],\"executable\":false,"
+                + "\"lamports\":2039280,\"owner\":\"TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA\","
+                + "\"rentEpoch\":18446744073709551615},"
+                + "\"pubkey\":\"4Nd1mBQtrMJVYVfKf2PJy9NZUZdTAsp7D4xWLs4gDB4T\"}";
+
+        ProgramAccount streamed = JsonAdapterRegistry.getProgramAccountAdapter().fromJson(json);
+        ProgramAccount legacy = new ProgramAccount((AbstractMap<?, ?>) JsonAdapterRegistry.getMoshi()
+                .adapter(Object.class).fromJson(json));
+
+        assertEquals(-1L, streamed.getAccount().getRentEpoch());
+        assertEquals(-1L, legacy.getAccount().getRentEpoch());
+        assertEquals(2039280L, streamed.getAccount().getLamports());
+        assertEquals(2039280L, legacy.getAccount().getLamports());
+    }
+}
@@ -0,0 +1,55 @@
+package org.p2p.solanaj.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class Base58Test {
+
+    @Test
+    public void matchesBitcoinj() {
+        Random random = new Random(4);
+        for (int length = 0; length <= 80; length++) {
+            for (int zeros = 0; zeros <= Math.min(length, 3); zeros++) {
+                byte[] input = new byte[length];
+                random.nextBytes(input);
+                for (int i = 0; i < zeros; i++) {
+                    input[i] = 0;
+                }
+
+                String expected = org.bitcoinj.core.Base58.encode(input);
+                assertEquals(expected, Base58.encode(input));
+                assertArrayEquals(input, Base58.decode(expected));
+
+                byte[] decoded = new byte[length + 2];
+                Base58.decode(expected, decoded, 1, length);
+                for (int i = 0; i < length; i++) {
+                    assertEquals(input[i], decoded[i + 1]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void decodeIntoBufferChecksLength() {
+        byte[] buffer = new byte[32];
+        Base58.decode("11111111111111111111111111111111", buffer, 0, 32);
+        Base58.decode("CiDwVBFgWV9E5MvXWoLgnEgn2hK7rJikbvfWavzAQz3", buffer, 0, 32);
+        assertEquals(3, buffer[0]);
+
+        assertInvalid("CiDwVBFgWV9E5MvXWoLgnEgn2hK7rJikbvfWavzAQz3", 31);
+        assertInvalid("CiDwVBFgWV9E5MvXWoLgnEgn2hK7rJikbvfWavzAQz3", 33);
+        assertInvalid("111111111111111111111111111111111", 32);
+        assertInvalid("CiDwVBFgWV9E5MvXWoLgnEgn2hK7rJikbvfWavzAQz0", 32);
+    }
+
+    private static void assertInvalid(String input, int length) {
+        try {
+            Base58.decode(input, new byte[length], 0, length);
+            fail("expected " + input + " not to decode to " + length + " bytes");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
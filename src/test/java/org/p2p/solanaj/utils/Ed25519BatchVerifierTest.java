@@ -0,0 +1,69 @@
+package org.p2p.solanaj.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class Ed25519BatchVerifierTest {
+
+    private final List<byte[]> messages = new ArrayList<>();
+    private final List<byte[]> signatures = new ArrayList<>();
+    private final List<byte[]> publicKeys = new ArrayList<>();
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @After
+    public void shutDownPool() {
+        pool.shutdown();
+    }
+
+    private void sign(int count) {
+        Random random = new Random(3);
+        for (int i = 0; i < count; i++) {
+            TweetNaclFast.Signature.KeyPair keyPair = TweetNaclFast.Signature.keyPair();
+            byte[] message = new byte[random.nextInt(400)];
+            random.nextBytes(message);
+
+            messages.add(message);
+            signatures.add(new Ed25519Signer(keyPair.getSecretKey()).sign(message));
+            publicKeys.add(keyPair.getPublicKey());
+        }
+    }
+
+    @Test
+    public void acceptsValidBatch() {
+        sign(50);
+
+        Ed25519BatchVerifier.Result result = new Ed25519BatchVerifier(pool, 16)
+                .verify(messages, signatures, publicKeys);
+
+        assertTrue(result.isAllValid());
+        assertEquals(50, result.size());
+    }
+
+    @Test
+    public void reportsInvalidItems() {
+        sign(40);
+        // wrong message, corrupted R, corrupted s, wrong key
+        messages.get(3)[0] ^= 1;
+        signatures.get(17)[5] ^= 1;
+        signatures.get(18)[40] ^= 1;
+        publicKeys.set(30, publicKeys.get(31));
+
+        Ed25519BatchVerifier.Result result = new Ed25519BatchVerifier(pool, 16)
+                .verify(messages, signatures, publicKeys);
+
+        assertFalse(result.isAllValid());
+        assertEquals(Arrays.asList(3, 17, 18, 30), result.getInvalidIndices());
+        for (int i = 0; i < messages.size(); i++) {
+            TweetNaclFast.Signature single = new TweetNaclFast.Signature(publicKeys.get(i), new byte[0]);
+            assertEquals(single.detached_verify(messages.get(i), signatures.get(i)), result.isValid(i));
+        }
+    }
+}
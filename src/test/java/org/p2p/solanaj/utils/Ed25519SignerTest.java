@@ -0,0 +1,30 @@
+package org.p2p.solanaj.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class Ed25519SignerTest {
+
+    @Test
+    public void matchesTweetNaclSignatures() {
+        Random random = new Random(2);
+
+        for (int k = 0; k < 8; k++) {
+            TweetNaclFast.Signature.KeyPair keyPair = TweetNaclFast.Signature.keyPair();
+            TweetNaclFast.Signature signature = new TweetNaclFast.Signature(keyPair.getPublicKey(),
+                    keyPair.getSecretKey());
+            Ed25519Signer signer = new Ed25519Signer(keyPair.getSecretKey());
+
+            byte[] message = new byte[random.nextInt(1232)];
+            random.nextBytes(message);
+
+            byte[] expected = Arrays.copyOf(signature.sign(message), Ed25519Signer.SIGNATURE_LENGTH);
+            assertArrayEquals(expected, signer.sign(message));
+            assertArrayEquals(keyPair.getPublicKey(), signer.getPublicKey());
+        }
+    }
+}
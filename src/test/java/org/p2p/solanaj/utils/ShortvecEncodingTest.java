@@ -3,6 +3,8 @@ package org.p2p.solanaj.utils;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
+import java.nio.ByteBuffer;
+
 public class ShortvecEncodingTest {
 
     @Test
@@ -18,4 +20,22 @@ public class ShortvecEncodingTest {
         assertArrayEquals(new byte[] { -128, -128, -128, 1 } /* [0x80, 0x80, 0x80, 0x01] */,
                 ShortvecEncoding.encodeLength(2097152)); // 0x200000
     }
+
+    @Test
+    public void encodeLengthIntoBuffer() {
+        int[] lengths = { 0, 1, 127, 128, 255, 256, 32767, 2097152 };
+
+        for (int len : lengths) {
+            byte[] expected = ShortvecEncoding.encodeLength(len);
+            ByteBuffer out = ByteBuffer.allocate(expected.length);
+
+            ShortvecEncoding.encodeLength(out, len);
+
+            assertEquals(expected.length, ShortvecEncoding.encodedLength(len));
+            assertArrayEquals(expected, out.array());
+
+            out.flip();
+            assertEquals(len, ShortvecEncoding.decodeLength(out));
+        }
+    }
 }
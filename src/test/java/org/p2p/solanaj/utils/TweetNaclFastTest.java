@@ -0,0 +1,54 @@
+package org.p2p.solanaj.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TweetNaclFastTest {
+
+    @Test
+    public void detachedIntoBufferMatchesSignedMessage() {
+        TweetNaclFast.Signature.KeyPair keyPair = TweetNaclFast.Signature.keyPair();
+        TweetNaclFast.Signature signature = new TweetNaclFast.Signature(keyPair.getPublicKey(),
+                keyPair.getSecretKey());
+        Random random = new Random(1);
+
+        for (int length : new int[] { 0, 1, 111, 112, 128, 300, 1232 }) {
+            byte[] message = new byte[length];
+            random.nextBytes(message);
+
+            byte[] expected = Arrays.copyOf(signature.sign(message), TweetNaclFast.Signature.signatureLength);
+
+            byte[] buffer = new byte[10 + TweetNaclFast.Signature.signatureLength];
+            signature.detached(message, 0, message.length, buffer, 10);
+
+            assertArrayEquals(expected, Arrays.copyOfRange(buffer, 10, buffer.length));
+            assertArrayEquals(expected, signature.detached(message));
+            assertTrue(signature.detached_verify(message, expected));
+        }
+    }
+
+    @Test
+    public void fastCurveCheckMatchesSquareRoot() {
+        Random random = new Random(5);
+        byte[] point = new byte[32];
+        for (int i = 0; i < 2000; i++) {
+            random.nextBytes(point);
+            assertEquals(TweetNaclFast.is_on_curve(point), TweetNaclFast.is_on_curve_fast(point));
+        }
+
+        // y = 1 and y = -1 (x = 0), and real public keys
+        byte[] one = new byte[32];
+        one[0] = 1;
+        assertEquals(1, TweetNaclFast.is_on_curve_fast(one));
+        byte[] minusOne = new byte[32];
+        Arrays.fill(minusOne, (byte) 0xff);
+        minusOne[0] = (byte) 0xec;
+        minusOne[31] = 0x7f;
+        assertEquals(1, TweetNaclFast.is_on_curve_fast(minusOne));
+        assertEquals(1, TweetNaclFast.is_on_curve_fast(TweetNaclFast.Signature.keyPair().getPublicKey()));
+    }
+}
@@ -0,0 +1,88 @@
+package org.p2p.solanaj.ws;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class NotificationDecoderTest {
+
+    private final NotificationDecoder decoder = new NotificationDecoder();
+
+    @Test
+    public void decodesSubscribeResponse() throws Exception {
+        NotificationDecoder.Frame frame = decoder.decode("{\"jsonrpc\":\"2.0\",\"result\":23784,\"id\":\"abc\"}");
+
+        assertFalse(frame.isNotification());
+        assertEquals("abc", frame.getId());
+        assertEquals(Long.valueOf(23784), frame.getResult());
+    }
+
+    @Test
+    public void decodesAccountNotification() throws Exception {
+        NotificationDecoder.Frame frame = decoder.decode("{\"jsonrpc\":\"2.0\",\"method\":\"accountNotification\","
+                + "\"params\":{\"result\":{\"context\":{\"slot\":5199307},\"value\":{\"data\":[\"AQID\",\"base64\"],"
+                + "\"executable\":false,\"lamports\":33594,\"owner\":\"11111111111111111111111111111111\","
+                + "\"rentEpoch\":18446744073709551615,\"space\":3}},\"subscription\":23784}}");
+
+        assertEquals(23784, frame.getSubscription());
+        AccountNotification account = (AccountNotification) frame.getNotification();
+        assertEquals(5199307, account.getSlot());
+        assertEquals(33594, account.getLamports());
+        assertEquals(-1, account.getRentEpoch());
+        assertEquals(3, account.getSpace());
+        assertArrayEquals(new byte[] {1, 2, 3}, account.getDecodedData());
+        assertNull(account.getParsedData());
+    }
+
+    @Test
+    public void decodesParamsBeforeMethod() throws Exception {
+        NotificationDecoder.Frame frame = decoder.decode("{\"jsonrpc\":\"2.0\",\"params\":{\"subscription\":23784,"
+                + "\"result\":{\"context\":{\"slot\":5199307},\"value\":{\"data\":[\"AQID\",\"base64\"],"
+                + "\"executable\":false,\"lamports\":9007199254740993,\"owner\":\"11111111111111111111111111111111\","
+                + "\"rentEpoch\":18446744073709551615,\"space\":3}}},\"method\":\"accountNotification\"}");
+
+        assertEquals(23784, frame.getSubscription());
+        AccountNotification account = (AccountNotification) frame.getNotification();
+        assertEquals(5199307, account.getSlot());
+        // beyond double precision
+        assertEquals(9007199254740993L, account.getLamports());
+        assertEquals(-1, account.getRentEpoch());
+        assertArrayEquals(new byte[] {1, 2, 3}, account.getDecodedData());
+    }
+
+    @Test
+    public void decodesJsonParsedAccountNotification() throws Exception {
+        NotificationDecoder.Frame frame = decoder.decode("{\"jsonrpc\":\"2.0\",\"method\":\"accountNotification\","
+                + "\"params\":{\"result\":{\"context\":{\"slot\":1},\"value\":{\"data\":{\"program\":\"nonce\","
+                + "\"parsed\":{\"type\":\"initialized\"}},\"executable\":false,\"lamports\":1,"
+                + "\"owner\":\"11111111111111111111111111111111\",\"rentEpoch\":2}},\"subscription\":7}}");
+
+        AccountNotification account = (AccountNotification) frame.getNotification();
+        assertNull(account.getDecodedData());
+        assertEquals("nonce", ((Map<?, ?>) account.getParsedData()).get("program"));
+    }
+
+    @Test
+    public void decodesLogsAndSignatureNotifications() throws Exception {
+        NotificationDecoder.Frame logs = decoder.decode("{\"jsonrpc\":\"2.0\",\"method\":\"logsNotification\","
+                + "\"params\":{\"result\":{\"context\":{\"slot\":5208469},\"value\":{\"signature\":\"5h6x\","
+                + "\"err\":null,\"logs\":[\"a\",\"b\"]}},\"subscription\":24040}}");
+        LogsNotification logsNotification = (LogsNotification) logs.getNotification();
+        assertEquals("5h6x", logsNotification.getSignature());
+        assertFalse(logsNotification.hasError());
+        assertEquals(Arrays.asList("a", "b"), logsNotification.getLogs());
+        assertEquals(5208469, logsNotification.getSlot());
+
+        // params ahead of method
+        NotificationDecoder.Frame signature = decoder.decode("{\"params\":{\"result\":{\"value\":"
+                + "{\"err\":{\"InstructionError\":[0,\"Custom\"]}},\"context\":{\"slot\":9}},\"subscription\":5},"
+                + "\"method\":\"signatureNotification\",\"jsonrpc\":\"2.0\"}");
+        SignatureNotification signatureNotification = (SignatureNotification) signature.getNotification();
+        assertEquals(5, signature.getSubscription());
+        assertTrue(signatureNotification.hasError());
+        assertEquals(9, signatureNotification.getSlot());
+    }
+}
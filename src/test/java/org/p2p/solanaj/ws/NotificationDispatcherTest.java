@@ -0,0 +1,132 @@
+package org.p2p.solanaj.ws;
+
+import org.junit.Test;
+import org.p2p.solanaj.ws.NotificationDispatcher.OverflowPolicy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class NotificationDispatcherTest {
+
+    // runs drain tasks only when the test asks
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    @Test
+    public void dropOldest() {
+        NotificationDispatcher dispatcher = new NotificationDispatcher(tasks::add, 2, OverflowPolicy.DROP_OLDEST);
+        List<Object> received = new ArrayList<>();
+
+        for (int i = 1; i <= 4; i++) {
+            dispatcher.dispatch(7, received::add, i);
+        }
+        assertEquals(2, dispatcher.getQueueDepth(7));
+        assertEquals(2, dispatcher.getDroppedCount(7));
+
+        runTasks();
+        assertEquals(Arrays.asList(3, 4), received);
+        assertEquals(0, dispatcher.getQueueDepth());
+        assertEquals(2, dispatcher.getDeliveredCount());
+    }
+
+    @Test
+    public void coalesceLatest() {
+        NotificationDispatcher dispatcher = new NotificationDispatcher(tasks::add, 2, OverflowPolicy.COALESCE_LATEST);
+        List<Object> received = new ArrayList<>();
+
+        for (int i = 1; i <= 4; i++) {
+            dispatcher.dispatch(7, received::add, i);
+        }
+
+        runTasks();
+        assertEquals(Arrays.asList(1, 4), received);
+        assertEquals(2, dispatcher.getDroppedCount());
+    }
+
+    @Test
+    public void dispatchLastDeliversQueuedNotificationsBeforeRemoving() {
+        NotificationDispatcher dispatcher = new NotificationDispatcher(tasks::add, 4, OverflowPolicy.DROP_OLDEST);
+        List<Object> received = new ArrayList<>();
+
+        dispatcher.dispatch(7, received::add, 1);
+        dispatcher.dispatchLast(7, received::add, 2);
+        assertEquals(2, dispatcher.getQueueDepth(7));
+
+        runTasks();
+        assertEquals(Arrays.asList(1, 2), received);
+        assertEquals(0, dispatcher.getDroppedCount());
+
+        // the key is free again
+        List<Object> next = new ArrayList<>();
+        dispatcher.dispatch(7, next::add, 3);
+        runTasks();
+        assertEquals(Arrays.asList(3), next);
+    }
+
+    @Test
+    public void blockWaitsForSlowListener() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        NotificationDispatcher dispatcher = new NotificationDispatcher(executor, 1, OverflowPolicy.BLOCK);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Object> received = new ArrayList<>();
+
+        try {
+            dispatcher.dispatch(7, notification -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                synchronized (received) {
+                    received.add(notification);
+                }
+            }, 1);
+
+            Thread producer = new Thread(() -> {
+                for (int i = 2; i <= 5; i++) {
+                    dispatcher.dispatch(7, null, i);
+                }
+            });
+            producer.start();
+            producer.join(200);
+            assertTrue(producer.isAlive());
+
+            release.countDown();
+            producer.join(5000);
+            assertFalse(producer.isAlive());
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), received);
+        assertEquals(0, dispatcher.getDroppedCount());
+    }
+
+    @Test
+    public void failingListenerDoesNotStopDelivery() {
+        NotificationDispatcher dispatcher = new NotificationDispatcher(tasks::add, 8, OverflowPolicy.DROP_OLDEST);
+        List<Object> received = new ArrayList<>();
+
+        dispatcher.dispatch(1, notification -> {
+            throw new IllegalStateException("boom");
+        }, "a");
+        dispatcher.dispatch(2, received::add, "b");
+        runTasks();
+
+        assertEquals(1, dispatcher.getFailedCount());
+        assertEquals(Arrays.asList("b"), received);
+    }
+}
@@ -0,0 +1,275 @@
+package org.p2p.solanaj.ws;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.WebSocketServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.p2p.solanaj.rpc.JsonAdapterRegistry;
+import org.p2p.solanaj.rpc.types.RpcRequest;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.*;
+
+public class SubscriptionWebSocketClientTest {
+
+    // answers every request with a fresh subscription id and hands the requests to the test
+    private static class FakeNode extends WebSocketServer {
+        final BlockingQueue<RpcRequest> requests = new LinkedBlockingQueue<>();
+        // methods answered with an error instead of a subscription id
+        final Set<String> rejectedMethods = ConcurrentHashMap.newKeySet();
+        // holds answers back while closed
+        volatile CountDownLatch answers = new CountDownLatch(0);
+        private long nextSubscription = 100;
+
+        FakeNode() {
+            super(new InetSocketAddress("127.0.0.1", 0));
+            setReuseAddr(true);
+        }
+
+        @Override
+        public void onMessage(WebSocket conn, String message) {
+            try {
+                RpcRequest request = JsonAdapterRegistry.getRequestAdapter().fromJson(message);
+                requests.add(request);
+                answers.await();
+                if (rejectedMethods.contains(request.getMethod())) {
+                    conn.send("{\"jsonrpc\":\"2.0\",\"error\":{\"code\":-32602,\"message\":\"Invalid params\"},"
+                            + "\"id\":\"" + request.getId() + "\"}");
+                    return;
+                }
+                long subscription;
+                synchronized (this) {
+                    subscription = nextSubscription++;
+                }
+                conn.send("{\"jsonrpc\":\"2.0\",\"result\":" + subscription + ",\"id\":\"" + request.getId() + "\"}");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void onOpen(WebSocket conn, ClientHandshake handshake) {
+        }
+
+        @Override
+        public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onError(WebSocket conn, Exception ex) {
+        }
+
+        @Override
+        public void onStart() {
+        }
+
+        void notify(long subscription, long slot) {
+            broadcast("{\"jsonrpc\":\"2.0\",\"method\":\"logsNotification\",\"params\":{\"result\":{\"context\":"
+                    + "{\"slot\":" + slot + "},\"value\":{\"signature\":\"s" + slot + "\",\"err\":null,\"logs\":[]}},"
+                    + "\"subscription\":" + subscription + "}}");
+        }
+
+        void notifySignature(long subscription, long slot) {
+            broadcast("{\"jsonrpc\":\"2.0\",\"method\":\"signatureNotification\",\"params\":{\"result\":"
+                    + "{\"context\":{\"slot\":" + slot + "},\"value\":{\"err\":null}},\"subscription\":"
+                    + subscription + "}}");
+        }
+
+        void dropConnections() {
+            for (WebSocket connection : getConnections()) {
+                connection.closeConnection(1006, "test");
+            }
+        }
+    }
+
+    private FakeNode node;
+    private SubscriptionWebSocketClient client;
+
+    @Before
+    public void startNode() throws Exception {
+        node = new FakeNode();
+        node.start();
+        for (int i = 0; i < 100 && node.getPort() == 0; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitNodeSubscriptionId(String subscriptionId, long nodeSubscriptionId) throws InterruptedException {
+        await(() -> Long.valueOf(nodeSubscriptionId).equals(client.getNodeSubscriptionId(subscriptionId)));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @After
+    public void stop() throws Exception {
+        if (client != null) {
+            client.closeBlocking();
+        }
+        node.stop(1000);
+    }
+
+    @Test
+    public void reconnectsAndResubscribes() throws Exception {
+        client = new SubscriptionWebSocketClient(new URI("ws://127.0.0.1:" + node.getPort()));
+        client.setReconnectBackoff(10, 50);
+        List<long[]> gaps = new CopyOnWriteArrayList<>();
+        client.setGapListener((subscription, lastSlot, resumedSlot) -> gaps.add(new long[] {lastSlot, resumedSlot}));
+        BlockingQueue<LogsNotification> received = new LinkedBlockingQueue<>();
+        assertTrue(client.connectBlocking(5, TimeUnit.SECONDS));
+
+        String subscription = client.logsSubscribe("11111111111111111111111111111111",
+                data -> received.add((LogsNotification) data));
+        assertEquals(subscription, node.requests.poll(5, TimeUnit.SECONDS).getId());
+        awaitNodeSubscriptionId(subscription, 100);
+        node.notify(100, 10);
+        assertEquals(10, received.poll(5, TimeUnit.SECONDS).getSlot());
+
+        // drop the connection; the client replays the same request and gets a new id
+        node.dropConnections();
+        assertEquals(subscription, node.requests.poll(5, TimeUnit.SECONDS).getId());
+        awaitNodeSubscriptionId(subscription, 101);
+        node.notify(101, 15);
+        LogsNotification resumed = received.poll(5, TimeUnit.SECONDS);
+        assertEquals(15, resumed.getSlot());
+        assertEquals(1, gaps.size());
+        assertArrayEquals(new long[] {10, 15}, gaps.get(0));
+    }
+
+    @Test
+    public void consumedSignatureSubscriptionIsNotReplayed() throws Exception {
+        client = new SubscriptionWebSocketClient(new URI("ws://127.0.0.1:" + node.getPort()));
+        client.setReconnectBackoff(10, 50);
+        BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+        assertTrue(client.connectBlocking(5, TimeUnit.SECONDS));
+
+        String signature = client.signatureSubscribe(
+                "5VERv8NMvzbJMEkV8xnrLkEaWRtSz9CosKDYjCJjBRnbJLgp8uirBgmQpjKhoR4tjF3ZpRzrFmBV6UjKdiSZkQUW",
+                received::add);
+        String logs = client.logsSubscribe("11111111111111111111111111111111", received::add);
+        assertEquals(signature, node.requests.poll(5, TimeUnit.SECONDS).getId());
+        assertEquals(logs, node.requests.poll(5, TimeUnit.SECONDS).getId());
+        awaitNodeSubscriptionId(signature, 100);
+        awaitNodeSubscriptionId(logs, 101);
+        node.notifySignature(100, 10);
+        assertEquals(10, ((SignatureNotification) received.poll(5, TimeUnit.SECONDS)).getSlot());
+        assertNull(client.getNodeSubscriptionId(signature));
+
+        node.dropConnections();
+        assertEquals(logs, node.requests.poll(5, TimeUnit.SECONDS).getId());
+        assertNull(node.requests.poll(500, TimeUnit.MILLISECONDS));
+        assertEquals(0, client.getNotificationDispatcher().getQueueDepth());
+    }
+
+    @Test
+    public void unsubscribeStopsNotificationsAndReplay() throws Exception {
+        client = new SubscriptionWebSocketClient(new URI("ws://127.0.0.1:" + node.getPort()));
+        client.setReconnectBackoff(10, 50);
+        BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+        assertTrue(client.connectBlocking(5, TimeUnit.SECONDS));
+
+        String subscription = client.logsSubscribe("11111111111111111111111111111111", received::add);
+        assertEquals(subscription, node.requests.poll(5, TimeUnit.SECONDS).getId());
+        awaitNodeSubscriptionId(subscription, 100);
+
+        client.unsubscribe(subscription);
+        RpcRequest unsubscribe = node.requests.poll(5, TimeUnit.SECONDS);
+        assertEquals("logsUnsubscribe", unsubscribe.getMethod());
+        assertEquals(100L, ((Number) unsubscribe.getParams().get(0)).longValue());
+
+        node.notify(100, 10);
+        node.dropConnections();
+        assertNull(node.requests.poll(500, TimeUnit.MILLISECONDS));
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    public void rejectedSubscriptionIsDropped() throws Exception {
+        node.rejectedMethods.add("accountSubscribe");
+        client = new SubscriptionWebSocketClient(new URI("ws://127.0.0.1:" + node.getPort()));
+        client.setReconnectBackoff(10, 50);
+        assertTrue(client.connectBlocking(5, TimeUnit.SECONDS));
+
+        String rejected = client.accountSubscribe("not a pubkey", data -> fail());
+        assertEquals(rejected, node.requests.poll(5, TimeUnit.SECONDS).getId());
+        await(() -> client.getNodeSubscriptionId(rejected) == null);
+
+        String logs = client.logsSubscribe("11111111111111111111111111111111", data -> { });
+        assertEquals(logs, node.requests.poll(5, TimeUnit.SECONDS).getId());
+        awaitNodeSubscriptionId(logs, 100);
+
+        node.dropConnections();
+        assertEquals(logs, node.requests.poll(5, TimeUnit.SECONDS).getId());
+        assertNull(node.requests.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void subscribeSendsOnlyItsOwnRequest() throws Exception {
+        client = new SubscriptionWebSocketClient(new URI("ws://127.0.0.1:" + node.getPort()));
+        client.setReconnectBackoff(10, 50);
+        assertTrue(client.connectBlocking(5, TimeUnit.SECONDS));
+        node.answers = new CountDownLatch(1);
+
+        // the first is still unanswered when the second is made
+        String first = client.logsSubscribe("11111111111111111111111111111111", data -> { });
+        assertEquals(first, node.requests.poll(5, TimeUnit.SECONDS).getId());
+        String second = client.logsSubscribe("Vote111111111111111111111111111111111111111", data -> { });
+        node.answers.countDown();
+        assertEquals(second, node.requests.poll(5, TimeUnit.SECONDS).getId());
+        awaitNodeSubscriptionId(first, 100);
+        awaitNodeSubscriptionId(second, 101);
+        assertNull(node.requests.poll(200, TimeUnit.MILLISECONDS));
+
+        // the replay is sent once, whatever is subscribed while it is pending
+        node.answers = new CountDownLatch(1);
+        node.dropConnections();
+        RpcRequest replayed = node.requests.poll(5, TimeUnit.SECONDS);
+        String third = client.logsSubscribe("Stake11111111111111111111111111111111111111", data -> { });
+        node.answers.countDown();
+        List<String> sent = List.of(replayed.getId(), node.requests.poll(5, TimeUnit.SECONDS).getId(),
+                node.requests.poll(5, TimeUnit.SECONDS).getId());
+        assertTrue(sent.containsAll(List.of(first, second, third)));
+        assertNull(node.requests.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void unsubscribeBeforeAnswerUnsubscribesOnNode() throws Exception {
+        client = new SubscriptionWebSocketClient(new URI("ws://127.0.0.1:" + node.getPort()));
+        client.setReconnectBackoff(10, 50);
+        BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+        assertTrue(client.connectBlocking(5, TimeUnit.SECONDS));
+        node.answers = new CountDownLatch(1);
+
+        String subscription = client.logsSubscribe("11111111111111111111111111111111", received::add);
+        assertEquals(subscription, node.requests.poll(5, TimeUnit.SECONDS).getId());
+        client.unsubscribe(subscription);
+        assertNull(client.getNodeSubscriptionId(subscription));
+        node.answers.countDown();
+
+        RpcRequest unsubscribe = node.requests.poll(5, TimeUnit.SECONDS);
+        assertEquals("logsUnsubscribe", unsubscribe.getMethod());
+        assertEquals(100L, ((Number) unsubscribe.getParams().get(0)).longValue());
+
+        node.notify(100, 10);
+        node.dropConnections();
+        assertNull(node.requests.poll(500, TimeUnit.MILLISECONDS));
+        assertTrue(received.isEmpty());
+    }
+}